@@ -0,0 +1,127 @@
+/*
+Copyright (c) 2024 Andrew Auclair
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package ModernDocking.internal;
+
+import ModernDocking.DockingProperty;
+import ModernDocking.ui.DefaultDockingPanel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Reads and writes the docking property fields of 1,000 dockables with ten fields each, using the cached
+ * MethodHandles of DockableProperties and the old reflective Field.get/Field.set path.
+ * <p>
+ * The dockables aren't registered, wrappers can't be created in a headless JVM. Only the field access is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DockablePropertiesBenchmark {
+	private static final int DOCKABLE_COUNT = 1000;
+
+	private static final Consumer<String> IGNORE = name -> {};
+
+	public static class PropertiesPanel extends DefaultDockingPanel {
+		@DockingProperty(name = "byte")
+		private byte byteValue = 1;
+		@DockingProperty(name = "short")
+		private short shortValue = 2;
+		@DockingProperty(name = "int")
+		private int intValue = 3;
+		@DockingProperty(name = "long")
+		private long longValue = 4;
+		@DockingProperty(name = "float")
+		private float floatValue = 5.5f;
+		@DockingProperty(name = "double")
+		private double doubleValue = 6.5;
+		@DockingProperty(name = "char")
+		private char charValue = 'c';
+		@DockingProperty(name = "boolean")
+		private boolean booleanValue = true;
+		@DockingProperty(name = "string")
+		private String stringValue = "string";
+		@DockingProperty(name = "count", defaultValue = "10")
+		private int count = 10;
+
+		public PropertiesPanel(String persistentID) {
+			super(persistentID, persistentID);
+		}
+	}
+
+	private final List<PropertiesPanel> dockables = new ArrayList<>();
+	private final List<Map<String, String>> saved = new ArrayList<>();
+
+	@Setup
+	public void setup() {
+		for (int i = 0; i < DOCKABLE_COUNT; i++) {
+			PropertiesPanel panel = new PropertiesPanel("panel-" + i);
+
+			Map<String, String> properties = new HashMap<>();
+			DockableProperties.getFields(panel, properties);
+
+			dockables.add(panel);
+			saved.add(properties);
+		}
+	}
+
+	@Benchmark
+	public void getMethodHandles(Blackhole blackhole) {
+		for (PropertiesPanel dockable : dockables) {
+			Map<String, String> properties = new HashMap<>();
+			DockableProperties.getFields(dockable, properties);
+			blackhole.consume(properties);
+		}
+	}
+
+	@Benchmark
+	public void getReflective(Blackhole blackhole) {
+		for (PropertiesPanel dockable : dockables) {
+			Map<String, String> properties = new HashMap<>();
+			ReflectiveDockableProperties.getFields(dockable, properties);
+			blackhole.consume(properties);
+		}
+	}
+
+	@Benchmark
+	public void setMethodHandles() {
+		for (int i = 0; i < dockables.size(); i++) {
+			DockableProperties.setFields(dockables.get(i), saved.get(i), IGNORE);
+		}
+	}
+
+	@Benchmark
+	public void setReflective() {
+		for (int i = 0; i < dockables.size(); i++) {
+			ReflectiveDockableProperties.setFields(dockables.get(i), saved.get(i), IGNORE);
+		}
+	}
+}
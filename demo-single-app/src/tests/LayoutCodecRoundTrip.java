@@ -0,0 +1,214 @@
+/*
+Copyright (c) 2024 Andrew Auclair
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package tests;
+
+import ModernDocking.api.BinaryLayoutCodec;
+import ModernDocking.api.DockingAPI;
+import ModernDocking.api.LayoutCodec;
+import ModernDocking.api.XMLLayoutCodec;
+import ModernDocking.app.Docking;
+import ModernDocking.layouts.*;
+import basic.SimplePanel;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Writes an application layout, a window layout and the properties of undocked dockables with the XML and binary
+ * codecs, reads them back and checks that they match. Then compares the size and speed of both codecs.
+ */
+public class LayoutCodecRoundTrip {
+    private static final int DOCKABLE_COUNT = 200;
+    private static final int TABS_PER_GROUP = 5;
+    private static final int ITERATIONS = 500;
+
+    private final DockingAPI docking;
+    private final List<String> failures = new ArrayList<>();
+
+    LayoutCodecRoundTrip(DockingAPI docking) {
+        this.docking = docking;
+    }
+
+    /**
+     * Run the round trips and the comparison
+     *
+     * @return True if every layout read back matches the layout that was written
+     */
+    boolean run() throws IOException {
+        List<String> ids = new ArrayList<>();
+
+        for (int i = 0; i < DOCKABLE_COUNT; i++) {
+            ids.add("panel-" + i);
+        }
+
+        // half of the dockables in the main frame, a quarter in a floating frame and the rest undocked
+        WindowLayout mainFrame = new WindowLayout(true, new Point(10, 20), new Dimension(1280, 800), Frame.NORMAL,
+                buildNode(ids.subList(0, DOCKABLE_COUNT / 2), 0));
+        mainFrame.setWestUnpinnedToolbarIDs(Arrays.asList(ids.get(1), ids.get(2)));
+        mainFrame.setSouthUnpinnedToolbarIDs(Collections.singletonList(ids.get(3)));
+        mainFrame.setMaximizedDockable(ids.get(4));
+
+        WindowLayout floatingFrame = new WindowLayout(false, new Point(-300, 50), new Dimension(400, 300), Frame.NORMAL,
+                buildNode(ids.subList(DOCKABLE_COUNT / 2, DOCKABLE_COUNT * 3 / 4), 1));
+
+        ApplicationLayout layout = new ApplicationLayout();
+        layout.setMainFrame(mainFrame);
+        layout.addFrame(floatingFrame);
+
+        List<DockingSimplePanelNode> undocked = new ArrayList<>();
+
+        for (String id : ids.subList(DOCKABLE_COUNT * 3 / 4, DOCKABLE_COUNT)) {
+            undocked.add(new DockingSimplePanelNode(docking, id, SimplePanel.class.getCanonicalName(), propertiesFor(id)));
+        }
+
+        LayoutCodec xml = new XMLLayoutCodec(docking);
+        LayoutCodec binary = new BinaryLayoutCodec(docking);
+
+        roundTrip("XML", xml, layout, undocked, floatingFrame);
+        roundTrip("Binary", binary, layout, undocked, floatingFrame);
+
+        compare("XML", xml, layout, undocked);
+        compare("Binary", binary, layout, undocked);
+
+        failures.forEach(System.out::println);
+        System.out.println(failures.isEmpty() ? "All round trips passed" : failures.size() + " round trips failed");
+
+        return failures.isEmpty();
+    }
+
+    // group the dockables into tab groups and split the groups alternating between horizontal and vertical
+    private DockingLayoutNode buildNode(List<String> ids, int depth) {
+        if (ids.size() <= TABS_PER_GROUP) {
+            DockingTabPanelNode tabs = new DockingTabPanelNode(docking, ids.get(0), propertiesFor(ids.get(0)));
+
+            for (String id : ids.subList(1, ids.size())) {
+                tabs.addTab(id, propertiesFor(id));
+            }
+            tabs.bringToFront(tabs.findNode(ids.get(ids.size() - 1)));
+
+            return tabs;
+        }
+        int half = ids.size() / 2;
+
+        return new DockingSplitPanelNode(docking, buildNode(ids.subList(0, half), depth + 1), buildNode(ids.subList(half, ids.size()), depth + 1),
+                depth % 2 == 0 ? JSplitPane.HORIZONTAL_SPLIT : JSplitPane.VERTICAL_SPLIT, 0.25 + (depth % 3) * 0.25);
+    }
+
+    private static Map<String, String> propertiesFor(String id) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("test", id);
+        properties.put("test_int_1", String.valueOf(id.length()));
+        properties.put("title", "Panel <" + id + "> & \u00e9");
+        return properties;
+    }
+
+    private void roundTrip(String name, LayoutCodec codec, ApplicationLayout layout, List<DockingSimplePanelNode> undocked, WindowLayout window) throws IOException {
+        List<DockingSimplePanelNode> readUndocked = new ArrayList<>();
+        ApplicationLayout readLayout = codec.readApplicationLayout(new ByteArrayInputStream(writeApplication(codec, layout, undocked)), readUndocked);
+
+        if (!layout.structurallyEquals(readLayout)) {
+            failures.add(name + ": application layout doesn't match");
+        }
+
+        if (readUndocked.size() != undocked.size()) {
+            failures.add(name + ": expected " + undocked.size() + " undocked dockables, read " + readUndocked.size());
+        }
+        else {
+            for (int i = 0; i < undocked.size(); i++) {
+                if (!undocked.get(i).structurallyEquals(readUndocked.get(i))) {
+                    failures.add(name + ": undocked properties of " + undocked.get(i).getPersistentID() + " don't match");
+                }
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.writeWindowLayout(out, window);
+
+        if (!window.structurallyEquals(codec.readWindowLayout(new ByteArrayInputStream(out.toByteArray())))) {
+            failures.add(name + ": window layout doesn't match");
+        }
+    }
+
+    private void compare(String name, LayoutCodec codec, ApplicationLayout layout, List<DockingSimplePanelNode> undocked) throws IOException {
+        byte[] bytes = writeApplication(codec, layout, undocked);
+
+        // warm up before timing
+        for (int i = 0; i < ITERATIONS; i++) {
+            writeApplication(codec, layout, undocked);
+            codec.readApplicationLayout(new ByteArrayInputStream(bytes), new ArrayList<>());
+        }
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            writeApplication(codec, layout, undocked);
+        }
+        long writeTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            codec.readApplicationLayout(new ByteArrayInputStream(bytes), new ArrayList<>());
+        }
+        long readTime = System.nanoTime() - start;
+
+        System.out.printf("%-6s %8d bytes, write %8.1f us, read %8.1f us%n", name, bytes.length,
+                writeTime / 1000.0 / ITERATIONS, readTime / 1000.0 / ITERATIONS);
+    }
+
+    private static byte[] writeApplication(LayoutCodec codec, ApplicationLayout layout, List<DockingSimplePanelNode> undocked) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.writeApplicationLayout(out, layout, undocked);
+        return out.toByteArray();
+    }
+
+    public static void main(String[] args) {
+        SwingUtilities.invokeLater(() -> {
+            JFrame frame = new JFrame("Layout Codec Round Trip");
+            Docking.initialize(frame);
+
+            // the codecs look up the class of each dockable in a tab group
+            for (int i = 0; i < DOCKABLE_COUNT; i++) {
+                new SimplePanel("Panel " + i, "panel-" + i);
+            }
+
+            boolean passed = false;
+
+            try {
+                passed = new LayoutCodecRoundTrip(Docking.getSingleInstance()).run();
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+
+            Docking.uninitialize();
+            frame.dispose();
+
+            System.exit(passed ? 0 : 1);
+        });
+    }
+}
@@ -203,4 +203,18 @@ public interface Dockable {
 	 */
 	default void updateProperties() {
 	}
+
+	/**
+	 * The dockable has been hidden for a while and is one of the hidden dockables over Settings.getHibernationLimit().
+	 * Release anything that can be rebuilt later, such as models, caches and images. Does nothing by default.
+	 */
+	default void hibernate() {
+	}
+
+	/**
+	 * The dockable is about to be painted again after being hibernated. Called when it's shown or docked.
+	 * Rebuild anything released in hibernate(). Does nothing by default.
+	 */
+	default void rehydrate() {
+	}
 }
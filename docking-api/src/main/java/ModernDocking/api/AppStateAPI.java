@@ -23,20 +23,25 @@ package ModernDocking.api;
 
 import ModernDocking.Dockable;
 import ModernDocking.exception.DockingLayoutException;
+import ModernDocking.internal.AsyncLayoutWriter;
 import ModernDocking.internal.DockableWrapper;
 import ModernDocking.internal.DockingInternal;
+import ModernDocking.internal.DockingJournal;
 import ModernDocking.layouts.ApplicationLayout;
 import ModernDocking.layouts.DockingLayouts;
+import ModernDocking.layouts.DockingSimplePanelNode;
 import ModernDocking.layouts.WindowLayout;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.io.File;
+import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -50,15 +55,33 @@ public class AppStateAPI {
 	// private static final Logger logger = Logger.getLogger(AppStateAPI.class.getPackageName());
 	private static final int PERSIST_TIMER_DELAY_MS = 500;
 
+	// how long journaled changes can build up before we take a new snapshot
+	private static final int COMPACT_TIMER_DELAY_MS = 30_000;
+
 	private static boolean autoPersist = false;
 	private static final Map<DockingAPI, File> autoPersistFiles = new HashMap<>();
 
 	private static ApplicationLayout defaultAppLayout = null;
 	private static ApplicationLayout lastPersistedLayout = null;
 
+	// the last layout and undocked properties handed to the writer for each docking instance. used to skip writing unchanged layouts.
+	// removed again if the write fails so that the next persist retries it
+	private static final Map<DockingAPI, ApplicationLayout> lastWrittenLayouts = new HashMap<>();
+	private static final Map<DockingAPI, List<DockingSimplePanelNode>> lastWrittenUndocked = new HashMap<>();
+
+	// number of persists skipped because nothing changed, for each docking instance
+	private static final Map<DockingAPI, Long> skippedPersistCounts = new HashMap<>();
+
 	private static boolean paused = false;
 
+	private static boolean journaled = false;
+
 	private static Timer persistTimer = null;
+	private static Timer compactTimer = null;
+
+	// layouts are captured on the EDT and written to disk on this writer's thread
+	private static final AsyncLayoutWriter writer = AsyncLayoutWriter.getInstance();
+
 	private final DockingAPI docking;
 
 	protected AppStateAPI(DockingAPI docking) {
@@ -91,6 +114,10 @@ public class AppStateAPI {
 	 */
 	public void setPersistFile(File file) {
 		autoPersistFiles.put(docking, file);
+
+		// make sure the first layout is written to the new file
+		lastWrittenLayouts.remove(docking);
+		lastWrittenUndocked.remove(docking);
 	}
 
 	/**
@@ -120,14 +147,74 @@ public class AppStateAPI {
 		return paused;
 	}
 
+	/**
+	 * Set whether changes should be appended to a journal next to the persist file instead of writing
+	 * the entire layout on every change. The full layout is still written periodically and the journal
+	 * is replayed on top of it when restoring.
+	 *
+	 * @param journaled Should docking changes be journaled?
+	 */
+	public void setJournaled(boolean journaled) {
+		AppStateAPI.journaled = journaled;
+	}
+
+	/**
+	 * Are docking changes being journaled?
+	 *
+	 * @return True - changes are appended to a journal, False - the full layout is written on every change
+	 */
+	public boolean isJournaled() {
+		return journaled;
+	}
+
 	/**
 	 * Used to persist the current app layout to the layout file.
 	 * This is a no-op if auto persistence is turned off, it's paused or there is no file
 	 */
 	public void persist() {
+		// persisted once when the batch ends
+		if (!autoPersist || paused || docking.isBatching()) {
+			return;
+		}
+
+		if (journaled) {
+			// the operation is recorded and persisted once it's done
+			if (DockingInternal.get(docking).getJournal().isInOperation()) {
+				return;
+			}
+
+			// the change is already in the journal, make sure a snapshot is written eventually. changes that
+			// the journal can't describe call compact() instead
+			if (compactTimer == null && persistTimer == null) {
+				compactTimer = new Timer(COMPACT_TIMER_DELAY_MS, e -> {
+					compactTimer = null;
+
+					if (!paused) {
+						persistNow();
+					}
+				});
+
+				compactTimer.setRepeats(false);
+				compactTimer.start();
+			}
+			return;
+		}
+
+		schedulePersist();
+	}
+
+	/**
+	 * Write the full layout to the persist file and reset the journal. Called automatically when the journal
+	 * gets too long or when a change can't be journaled.
+	 */
+	public void compact() {
 		if (!autoPersist || paused) {
 			return;
 		}
+		schedulePersist();
+	}
+
+	private void schedulePersist() {
 
 		// we don't want to persist immediately in case this function is getting called a lot.
 		// start a timer that will be restarted every time persist() is called, until finally the timer will go off and persist the file.
@@ -135,50 +222,13 @@ public class AppStateAPI {
 			persistTimer = new Timer(PERSIST_TIMER_DELAY_MS, new AbstractAction() {
 				@Override
 				public void actionPerformed(ActionEvent e) {
+					// we're done with the timer for now. null it out
+					persistTimer = null;
+
 					// we might have gotten to the timer and then paused persistence
 					if (!paused) {
-						ApplicationLayout layout = docking.getDockingState().getApplicationLayout();
-
-						if (lastPersistedLayout != null) {
-							if (layout.getMainFrameLayout().getState() != Frame.NORMAL){
-								// set position and size of all frames into the new layout
-								layout.getMainFrameLayout().setLocation(lastPersistedLayout.getMainFrameLayout().getLocation());
-								layout.getMainFrameLayout().setSize(lastPersistedLayout.getMainFrameLayout().getSize());
-							}
-
-							List<WindowLayout> oldFrames = lastPersistedLayout.getFloatingFrameLayouts();
-							List<WindowLayout> newFrames = layout.getFloatingFrameLayouts();
-
-							for (WindowLayout newFrame : newFrames) {
-								if (newFrame.getState() == Frame.NORMAL) {
-									continue;
-								}
-
-								Optional<WindowLayout> oldFrame = oldFrames.stream()
-										.filter(windowLayout -> windowLayout.getWindowHashCode() == newFrame.getWindowHashCode())
-										.findFirst();
-
-								if (oldFrame.isPresent()) {
-									newFrame.setLocation(oldFrame.get().getLocation());
-									newFrame.setSize(oldFrame.get().getSize());
-								}
-							}
-						}
-						lastPersistedLayout = layout;
-
-						try {
-							docking.getLayoutPersistence().saveLayoutToFile(autoPersistFiles.get(docking), layout);
-
-							DockingLayouts.layoutPersisted(layout);
-
-							logger.log(Level.INFO, "ModernDocking: Persisted Layout Successfully");
-						}
-						catch (DockingLayoutException ex) {
-							logger.log(Level.INFO, ex.getMessage(), ex);
-						}
+						persistNow();
 					}
-					// we're done with the timer for now. null it out
-					persistTimer = null;
 				}
 			});
 
@@ -191,6 +241,173 @@ public class AppStateAPI {
 		}
 	}
 
+	// capture the layout on the EDT and hand it off to the background writer
+	private void persistNow() {
+		File file = autoPersistFiles.get(docking);
+
+		if (file == null) {
+			return;
+		}
+
+		// the snapshot includes everything journaled so far
+		if (compactTimer != null) {
+			compactTimer.stop();
+			compactTimer = null;
+		}
+		long sequence = DockingInternal.get(docking).getJournal().snapshotCaptured();
+		boolean truncateJournal = journaled;
+
+		ApplicationLayout layout = docking.getDockingState().getApplicationLayout();
+
+		// stored in the snapshot itself, so that a crash before the journal is reset can't replay records twice
+		if (truncateJournal) {
+			layout.setJournalSequence(sequence);
+		}
+
+		if (lastPersistedLayout != null) {
+			if (layout.getMainFrameLayout().getState() != Frame.NORMAL){
+				// set position and size of all frames into the new layout
+				layout.getMainFrameLayout().setLocation(lastPersistedLayout.getMainFrameLayout().getLocation());
+				layout.getMainFrameLayout().setSize(lastPersistedLayout.getMainFrameLayout().getSize());
+			}
+
+			List<WindowLayout> oldFrames = lastPersistedLayout.getFloatingFrameLayouts();
+			List<WindowLayout> newFrames = layout.getFloatingFrameLayouts();
+
+			for (WindowLayout newFrame : newFrames) {
+				if (newFrame.getState() == Frame.NORMAL) {
+					continue;
+				}
+
+				Optional<WindowLayout> oldFrame = oldFrames.stream()
+						.filter(windowLayout -> windowLayout.getWindowHashCode() == newFrame.getWindowHashCode())
+						.findFirst();
+
+				if (oldFrame.isPresent()) {
+					newFrame.setLocation(oldFrame.get().getLocation());
+					newFrame.setSize(oldFrame.get().getSize());
+				}
+			}
+		}
+		lastPersistedLayout = layout;
+
+		// the undocked properties are read from the dockables themselves, so they have to be captured here as well
+		List<DockingSimplePanelNode> undocked = docking.getLayoutPersistence().captureUndockedProperties();
+
+		// nothing has changed since the last write, skip serializing and writing the layout
+		if (isUnchanged(layout, undocked)) {
+			skippedPersistCounts.merge(docking, 1L, Long::sum);
+
+			// the journal records since the last snapshot are no longer needed
+			if (truncateJournal) {
+				writer.execute(() -> DockingJournal.truncate(file, sequence));
+			}
+			return;
+		}
+		lastWrittenLayouts.put(docking, layout);
+		lastWrittenUndocked.put(docking, undocked);
+
+		writer.submit(file, () -> {
+			try {
+				docking.getLayoutPersistence().saveLayoutToFile(file, layout, undocked);
+			}
+			catch (Exception e) {
+				SwingUtilities.invokeLater(() -> {
+					// a newer layout might have been handed to the writer already
+					if (lastWrittenLayouts.get(docking) == layout) {
+						lastWrittenLayouts.remove(docking);
+						lastWrittenUndocked.remove(docking);
+					}
+				});
+				throw e;
+			}
+
+			if (truncateJournal) {
+				DockingJournal.truncate(file, sequence);
+			}
+			else {
+				DockingJournal.delete(file);
+			}
+
+			SwingUtilities.invokeLater(() -> DockingLayouts.layoutPersisted(layout));
+
+			logger.log(Level.INFO, "ModernDocking: Persisted Layout Successfully");
+		});
+	}
+
+	// compare against the last layout handed to the writer. the hashes are cached in the layouts and only
+	// layouts with matching hashes have their trees compared
+	private boolean isUnchanged(ApplicationLayout layout, List<DockingSimplePanelNode> undocked) {
+		ApplicationLayout lastWritten = lastWrittenLayouts.get(docking);
+
+		return lastWritten != null &&
+				layout.structuralHash() == lastWritten.structuralHash() &&
+				layout.structurallyEquals(lastWritten) &&
+				undockedEquals(undocked, lastWrittenUndocked.get(docking));
+	}
+
+	private static boolean undockedEquals(List<DockingSimplePanelNode> undocked, List<DockingSimplePanelNode> other) {
+		if (other == null || undocked.size() != other.size()) {
+			return false;
+		}
+
+		for (int i = 0; i < undocked.size(); i++) {
+			if (!undocked.get(i).structurallyEquals(other.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Get the number of times persisting was skipped because the layout had not changed since it was last written
+	 *
+	 * @return Number of skipped writes
+	 */
+	public long getSkippedPersistCount() {
+		return skippedPersistCounts.getOrDefault(docking, 0L);
+	}
+
+	/**
+	 * Persist any pending layout changes immediately and wait for all layout writes to finish.
+	 * Applications should call this before exiting to make sure the latest layout is on disk.
+	 *
+	 * @param timeout Maximum time to wait for the writes
+	 * @param unit Unit of the timeout
+	 * @return True if all writes finished before the timeout
+	 */
+	public boolean flush(long timeout, TimeUnit unit) {
+		Runnable persistPending = () -> {
+			if (persistTimer != null || compactTimer != null) {
+				if (persistTimer != null) {
+					persistTimer.stop();
+					persistTimer = null;
+				}
+
+				if (!paused) {
+					persistNow();
+				}
+			}
+		};
+
+		if (SwingUtilities.isEventDispatchThread()) {
+			persistPending.run();
+		}
+		else {
+			try {
+				SwingUtilities.invokeAndWait(persistPending);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+			catch (InvocationTargetException e) {
+				logger.log(Level.INFO, e.getMessage(), e);
+			}
+		}
+		return writer.awaitIdle(timeout, unit);
+	}
+
 	/**
 	 * Restore the application layout from the auto persist file.
 	 *
@@ -209,6 +426,8 @@ public class AppStateAPI {
 			return false;
 		}
 
+		boolean replayed = true;
+
 		try {
 			setPaused(true);
 
@@ -216,6 +435,10 @@ public class AppStateAPI {
 
 			docking.getDockingState().restoreApplicationLayout(layout);
 
+			if (journaled) {
+				replayed = DockingInternal.get(docking).getJournal().replay(file, layout.getJournalSequence());
+			}
+
 			return true;
 		}
 		catch (Exception e) {
@@ -231,6 +454,11 @@ public class AppStateAPI {
 		finally {
 			// make sure that we turn persistence back on
 			setPaused(false);
+
+			// part of the journal couldn't be replayed, replace it with a snapshot of what was restored
+			if (!replayed) {
+				compact();
+			}
 		}
 	}
 
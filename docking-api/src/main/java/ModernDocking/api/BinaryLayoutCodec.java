@@ -0,0 +1,490 @@
+/*
+Copyright (c) 2024 Andrew Auclair
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package ModernDocking.api;
+
+import ModernDocking.layouts.*;
+
+import java.awt.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Layout codec that reads and writes a compact binary layout format.
+ * <p>
+ * Every persistent ID, class name, property key and property value is stored once in a string table at the
+ * start of the file and referenced by index afterwards. Integers are written as variable length values.
+ */
+public class BinaryLayoutCodec implements LayoutCodec {
+    private static final byte[] MAGIC = { 'M', 'D', 'L', 'B' };
+    // version 2 added the journal sequence to application layouts
+    private static final int VERSION = 2;
+
+    private static final int KIND_APPLICATION = 1;
+    private static final int KIND_WINDOW = 2;
+
+    private static final int NODE_NONE = 0;
+    private static final int NODE_SIMPLE = 1;
+    private static final int NODE_SPLIT = 2;
+    private static final int NODE_TABBED = 3;
+
+    // splits can't realistically be nested this deep, a corrupt file could otherwise overflow the stack
+    private static final int MAX_NODE_DEPTH = 512;
+
+    private final DockingAPI docking;
+
+    /**
+     * Create a new binary codec
+     *
+     * @param docking The docking instance the layouts belong to
+     */
+    public BinaryLayoutCodec(DockingAPI docking) {
+        this.docking = docking;
+    }
+
+    @Override
+    public boolean canDecode(byte[] header, int length) {
+        if (length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (header[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void writeApplicationLayout(OutputStream out, ApplicationLayout layout, List<DockingSimplePanelNode> undocked) throws IOException {
+        Encoder encoder = new Encoder();
+
+        encoder.writeVarInt(KIND_APPLICATION);
+        encoder.writeLong(layout.getJournalSequence());
+
+        WindowLayout mainFrame = layout.getMainFrameLayout();
+
+        List<WindowLayout> frames = new ArrayList<>();
+
+        // layouts can be created without a main frame
+        if (mainFrame != null) {
+            frames.add(mainFrame);
+        }
+        frames.addAll(layout.getFloatingFrameLayouts());
+
+        encoder.writeVarInt(frames.size());
+
+        for (WindowLayout frame : frames) {
+            writeWindow(encoder, frame, frame == mainFrame);
+        }
+
+        encoder.writeVarInt(undocked.size());
+
+        for (DockingSimplePanelNode node : undocked) {
+            writeSimple(encoder, node);
+        }
+
+        encoder.writeTo(out);
+    }
+
+    @Override
+    public ApplicationLayout readApplicationLayout(InputStream in, List<DockingSimplePanelNode> undocked) throws IOException {
+        Decoder decoder = new Decoder(in);
+
+        if (decoder.readVarInt() != KIND_APPLICATION) {
+            throw new IOException("Not an application layout");
+        }
+
+        ApplicationLayout layout = new ApplicationLayout();
+
+        if (decoder.version >= 2) {
+            layout.setJournalSequence(decoder.readLong());
+        }
+
+        int frameCount = decoder.readCount();
+
+        for (int i = 0; i < frameCount; i++) {
+            layout.addFrame(readWindow(decoder));
+        }
+
+        int undockedCount = decoder.readCount();
+
+        for (int i = 0; i < undockedCount; i++) {
+            undocked.add(readSimple(decoder));
+        }
+        return layout;
+    }
+
+    @Override
+    public void writeWindowLayout(OutputStream out, WindowLayout layout) throws IOException {
+        Encoder encoder = new Encoder();
+
+        encoder.writeVarInt(KIND_WINDOW);
+        writeWindow(encoder, layout, false);
+
+        encoder.writeTo(out);
+    }
+
+    @Override
+    public WindowLayout readWindowLayout(InputStream in) throws IOException {
+        Decoder decoder = new Decoder(in);
+
+        if (decoder.readVarInt() != KIND_WINDOW) {
+            throw new IOException("Not a window layout");
+        }
+        return readWindow(decoder);
+    }
+
+    private void writeWindow(Encoder encoder, WindowLayout layout, boolean isMainFrame) throws IOException {
+        encoder.writeVarInt(isMainFrame ? 1 : 0);
+        encoder.writeSignedVarInt(layout.getLocation().x);
+        encoder.writeSignedVarInt(layout.getLocation().y);
+        encoder.writeSignedVarInt(layout.getSize().width);
+        encoder.writeSignedVarInt(layout.getSize().height);
+        encoder.writeVarInt(layout.getState());
+        encoder.writeString(layout.getMaximizedDockable());
+
+        encoder.writeStrings(layout.getWestUnpinnedToolbarIDs());
+        encoder.writeStrings(layout.getEastUnpinnedToolbarIDs());
+        encoder.writeStrings(layout.getSouthUnpinnedToolbarIDs());
+
+        writeNode(encoder, layout.getRootNode());
+    }
+
+    private WindowLayout readWindow(Decoder decoder) throws IOException {
+        boolean isMainFrame = decoder.readVarInt() == 1;
+        Point location = new Point(decoder.readSignedVarInt(), decoder.readSignedVarInt());
+        Dimension size = new Dimension(decoder.readSignedVarInt(), decoder.readSignedVarInt());
+        int state = decoder.readVarInt();
+        String maximizedDockable = decoder.readString();
+
+        List<String> westToolbar = decoder.readStrings();
+        List<String> eastToolbar = decoder.readStrings();
+        List<String> southToolbar = decoder.readStrings();
+
+        WindowLayout layout = new WindowLayout(isMainFrame, location, size, state, readNode(decoder, 0));
+
+        layout.setWestUnpinnedToolbarIDs(westToolbar);
+        layout.setEastUnpinnedToolbarIDs(eastToolbar);
+        layout.setSouthUnpinnedToolbarIDs(southToolbar);
+
+        layout.setMaximizedDockable(maximizedDockable);
+
+        return layout;
+    }
+
+    private void writeNode(Encoder encoder, DockingLayoutNode node) throws IOException {
+        if (node instanceof DockingSimplePanelNode) {
+            encoder.writeVarInt(NODE_SIMPLE);
+            writeSimple(encoder, (DockingSimplePanelNode) node);
+        }
+        else if (node instanceof DockingSplitPanelNode) {
+            DockingSplitPanelNode split = (DockingSplitPanelNode) node;
+
+            encoder.writeVarInt(NODE_SPLIT);
+            encoder.writeVarInt(split.getOrientation());
+            encoder.writeDouble(split.getDividerProportion());
+
+            writeNode(encoder, split.getLeft());
+            writeNode(encoder, split.getRight());
+        }
+        else if (node instanceof DockingTabPanelNode) {
+            DockingTabPanelNode tabbed = (DockingTabPanelNode) node;
+            List<DockingSimplePanelNode> tabs = tabbed.getPersistentIDs();
+
+            encoder.writeVarInt(NODE_TABBED);
+            encoder.writeString(tabbed.getSelectedTabID());
+            encoder.writeVarInt(tabs.size());
+
+            for (DockingSimplePanelNode tab : tabs) {
+                encoder.writeString(tab.getPersistentID());
+                encoder.writeProperties(tab.getProperties());
+            }
+        }
+        else {
+            encoder.writeVarInt(NODE_NONE);
+        }
+    }
+
+    private DockingLayoutNode readNode(Decoder decoder, int depth) throws IOException {
+        if (depth > MAX_NODE_DEPTH) {
+            throw new IOException("Binary layout nodes are nested too deep");
+        }
+        int type = decoder.readVarInt();
+
+        switch (type) {
+            case NODE_NONE: return null;
+            case NODE_SIMPLE: return readSimple(decoder);
+            case NODE_SPLIT: {
+                int orientation = decoder.readVarInt();
+                double dividerProportion = Math.max(0.0, Math.min(1.0, decoder.readDouble()));
+
+                DockingLayoutNode left = readNode(decoder, depth + 1);
+                DockingLayoutNode right = readNode(decoder, depth + 1);
+
+                return new DockingSplitPanelNode(docking, left, right, orientation, dividerProportion);
+            }
+            case NODE_TABBED: {
+                DockingTabPanelNode node = new DockingTabPanelNode(docking, decoder.readString());
+
+                int tabCount = decoder.readCount();
+
+                for (int i = 0; i < tabCount; i++) {
+                    String persistentID = decoder.readString();
+
+                    node.addTab(persistentID);
+                    node.setProperties(persistentID, decoder.readProperties());
+                }
+                return node;
+            }
+        }
+        throw new IOException("Unknown layout node type: " + type);
+    }
+
+    private void writeSimple(Encoder encoder, DockingSimplePanelNode node) throws IOException {
+        encoder.writeString(node.getPersistentID());
+        encoder.writeString(node.getClassName());
+        encoder.writeProperties(node.getProperties());
+    }
+
+    private DockingSimplePanelNode readSimple(Decoder decoder) throws IOException {
+        String persistentID = decoder.readString();
+        String className = decoder.readString();
+
+        return new DockingSimplePanelNode(docking, persistentID, className, decoder.readProperties());
+    }
+
+    // writes the body to memory while building the string table, the table is written in front of the body
+    private static class Encoder {
+        private final Map<String, Integer> strings = new LinkedHashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream body = new DataOutputStream(bytes);
+
+        void writeVarInt(int value) throws IOException {
+            writeVarInt(body, value);
+        }
+
+        void writeSignedVarInt(int value) throws IOException {
+            // zigzag encode so that small negative values stay small
+            writeVarInt(body, (value << 1) ^ (value >> 31));
+        }
+
+        void writeDouble(double value) throws IOException {
+            body.writeDouble(value);
+        }
+
+        void writeLong(long value) throws IOException {
+            body.writeLong(value);
+        }
+
+        // strings are written as an index into the string table, 0 is reserved for null
+        void writeString(String value) throws IOException {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+
+            Integer index = strings.get(value);
+
+            if (index == null) {
+                index = strings.size();
+                strings.put(value, index);
+            }
+            writeVarInt(index + 1);
+        }
+
+        void writeStrings(List<String> values) throws IOException {
+            writeVarInt(values.size());
+
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+
+        void writeProperties(Map<String, String> properties) throws IOException {
+            int count = 0;
+
+            for (String value : properties.values()) {
+                if (value != null) {
+                    count++;
+                }
+            }
+
+            writeVarInt(count);
+
+            for (Map.Entry<String, String> entry : properties.entrySet()) {
+                if (entry.getValue() != null) {
+                    writeString(entry.getKey());
+                    writeString(entry.getValue());
+                }
+            }
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            DataOutputStream data = new DataOutputStream(out);
+
+            data.write(MAGIC);
+            writeVarInt(data, VERSION);
+            writeVarInt(data, strings.size());
+
+            for (String value : strings.keySet()) {
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+
+                writeVarInt(data, encoded.length);
+                data.write(encoded);
+            }
+
+            bytes.writeTo(data);
+            data.flush();
+        }
+
+        private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+
+    private static class Decoder {
+        private final DataInputStream in;
+        private final int version;
+        private final String[] strings;
+
+        Decoder(InputStream stream) throws IOException {
+            // layouts are small, reading the whole file up front lets us check lengths against what's left of it
+            in = new DataInputStream(new ByteArrayInputStream(readAll(stream)));
+
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (magic[i] != MAGIC[i]) {
+                    throw new IOException("Not a binary layout");
+                }
+            }
+
+            version = readVarInt();
+
+            if (version > VERSION) {
+                throw new IOException("Unsupported binary layout version: " + version);
+            }
+
+            strings = new String[readCount()];
+
+            for (int i = 0; i < strings.length; i++) {
+                byte[] encoded = new byte[readCount()];
+                in.readFully(encoded);
+
+                strings[i] = new String(encoded, StandardCharsets.UTF_8);
+            }
+        }
+
+        private static byte[] readAll(InputStream stream) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+
+            while ((read = stream.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        }
+
+        /**
+         * Read a length or a count of entries. Every entry takes at least one byte, so the value can't be larger
+         * than the rest of the file. Checked before anything is allocated so that a corrupt file can't cause an Error.
+         */
+        int readCount() throws IOException {
+            int count = readVarInt();
+
+            if (count < 0 || count > in.available()) {
+                throw new IOException("Invalid length in binary layout: " + count);
+            }
+            return count;
+        }
+
+        int readVarInt() throws IOException {
+            int value = 0;
+
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = in.readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable length integer");
+        }
+
+        int readSignedVarInt() throws IOException {
+            int value = readVarInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        double readDouble() throws IOException {
+            return in.readDouble();
+        }
+
+        long readLong() throws IOException {
+            return in.readLong();
+        }
+
+        String readString() throws IOException {
+            int index = readVarInt();
+
+            if (index == 0) {
+                return null;
+            }
+            if (index < 0 || index > strings.length) {
+                throw new IOException("Invalid string table index: " + index);
+            }
+            return strings[index - 1];
+        }
+
+        List<String> readStrings() throws IOException {
+            int count = readCount();
+            List<String> values = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++) {
+                values.add(readString());
+            }
+            return values;
+        }
+
+        Map<String, String> readProperties() throws IOException {
+            int count = readCount();
+            Map<String, String> properties = new HashMap<>();
+
+            for (int i = 0; i < count; i++) {
+                properties.put(readString(), readString());
+            }
+            return properties;
+        }
+    }
+}
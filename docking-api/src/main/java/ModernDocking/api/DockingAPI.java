@@ -24,6 +24,7 @@ package ModernDocking.api;
 import ModernDocking.Dockable;
 import ModernDocking.DockableStyle;
 import ModernDocking.DockingRegion;
+import ModernDocking.event.DockingBatchListener;
 import ModernDocking.event.DockingListener;
 import ModernDocking.event.MaximizeListener;
 import ModernDocking.exception.NotDockedException;
@@ -72,6 +73,9 @@ public class DockingAPI {
 
     private boolean deregistering = false;
 
+    // number of batches currently open, see beginBatch
+    private int batchDepth = 0;
+
     public AppStateAPI getAppState() {
         return appState;
     }
@@ -219,8 +223,12 @@ public class DockingAPI {
 
         rootPanels.put(parent, panel);
         FloatListener.registerDockingWindow(this, parent, panel);
+        DockingHitTestIndex.register(parent, panel);
+        internals.getWindowRegistry().addWindow(parent);
 
         appStatePersister.addWindow(parent);
+
+        activeDockableHighlighter.updateActiveWindow();
     }
 
     /**
@@ -240,8 +248,12 @@ public class DockingAPI {
 
         rootPanels.put(parent, panel);
         FloatListener.registerDockingWindow(this, parent, panel);
+        DockingHitTestIndex.register(parent, panel);
+        internals.getWindowRegistry().addWindow(parent);
 
         appStatePersister.addWindow(parent);
+
+        activeDockableHighlighter.updateActiveWindow();
     }
 
     /**
@@ -258,8 +270,12 @@ public class DockingAPI {
 
         rootPanels.remove(parent);
         FloatListener.deregisterDockingWindow(parent);
+        DockingHitTestIndex.deregister(parent);
+        internals.getWindowRegistry().removeWindow(parent);
 
         appStatePersister.removeWindow(parent);
+
+        activeDockableHighlighter.updateActiveWindow();
     }
 
     /**
@@ -393,21 +409,37 @@ public class DockingAPI {
             throw new RootDockingPanelNotFoundException(window);
         }
 
-        // if the source is already docked we need to undock it before docking it again, otherwise we might steal it from its UI parent
-        if (isDocked(dockable)) {
-            DockableWrapper wrapper = internals.getWrapper(dockable);
+        DockingJournal journal = internals.getJournal();
+        journal.begin();
 
-            wrapper.getParent().undock(dockable);
+        try {
+            // if the source is already docked we need to undock it before docking it again, otherwise we might steal it from its UI parent
+            if (isDocked(dockable)) {
+                DockableWrapper wrapper = internals.getWrapper(dockable);
 
-            // don't fire an undocked event for this one
-        }
+                wrapper.getParent().undock(dockable);
+
+                // don't fire an undocked event for this one
+            }
 
-        root.dock(dockable, region, dividerProportion);
+            root.dock(dockable, region, dividerProportion);
 
-        internals.getWrapper(dockable).setWindow(window);
+            internals.getWrapper(dockable).setWindow(window);
 
-        // fire a docked event when the component is actually added
-        DockingListeners.fireDockedEvent(dockable);
+            // fire a docked event when the component is actually added
+            DockingListeners.fireDockedEvent(dockable);
+        }
+        finally {
+            journal.end();
+        }
+
+        // other windows are only recreated from a snapshot
+        if (window == mainWindow) {
+            journal.record("dock-root", dockable.getPersistentID(), region.name(), String.valueOf(dividerProportion));
+        }
+        else {
+            journal.invalidate();
+        }
 
         appState.persist();
     }
@@ -481,20 +513,30 @@ public class DockingAPI {
             throw new NotDockedException("Unable to dock dockable with persistent ID '" + source.getPersistentID() + "'", target);
         }
 
-        // if the source is already docked we need to undock it before docking it again, otherwise we might steal it from its UI parent
-        if (isDocked(source)) {
-            DockableWrapper wrapper = internals.getWrapper(source);
+        DockingJournal journal = internals.getJournal();
+        journal.begin();
 
-            wrapper.getParent().undock(source);
-        }
+        try {
+            // if the source is already docked we need to undock it before docking it again, otherwise we might steal it from its UI parent
+            if (isDocked(source)) {
+                DockableWrapper wrapper = internals.getWrapper(source);
 
-        DockableWrapper wrapper = internals.getWrapper(target);
+                wrapper.getParent().undock(source);
+            }
+
+            DockableWrapper wrapper = internals.getWrapper(target);
 
-        wrapper.getParent().dock(source, region, dividerProportion);
+            wrapper.getParent().dock(source, region, dividerProportion);
 
-        internals.getWrapper(source).setWindow(wrapper.getWindow());
+            internals.getWrapper(source).setWindow(wrapper.getWindow());
 
-        DockingListeners.fireDockedEvent(source);
+            DockingListeners.fireDockedEvent(source);
+        }
+        finally {
+            journal.end();
+        }
+
+        journal.record("dock", source.getPersistentID(), target.getPersistentID(), region.name(), String.valueOf(dividerProportion));
 
         appState.persist();
     }
@@ -614,25 +656,35 @@ public class DockingAPI {
 
         DockableWrapper wrapper = internals.getWrapper(dockable);
 
-        wrapper.setRoot(root);
+        DockingJournal journal = internals.getJournal();
+        journal.begin();
 
-        if (isUnpinned(dockable)) {
-            root.undock(dockable);
-            wrapper.setParent(null);
-            wrapper.setUnpinned(false);
-        }
-        else {
-            wrapper.getParent().undock(dockable);
-        }
-        wrapper.setWindow(null);
+        try {
+            wrapper.setRoot(root);
 
-        DockingListeners.fireUndockedEvent(dockable);
+            if (isUnpinned(dockable)) {
+                root.undock(dockable);
+                wrapper.setParent(null);
+                wrapper.setUnpinned(false);
+            }
+            else {
+                wrapper.getParent().undock(dockable);
+            }
+            wrapper.setWindow(null);
 
-        // make sure that can dispose this window, and we're not floating the last dockable in it
-        if (canDisposeWindow(window) && root.isEmpty() && !FloatListener.isFloating()) {
-            deregisterDockingPanel(window);
-            window.dispose();
+            DockingListeners.fireUndockedEvent(dockable);
+
+            // make sure that can dispose this window, and we're not floating the last dockable in it
+            if (canDisposeWindow(window) && root.isEmpty() && !FloatListener.isFloating()) {
+                deregisterDockingPanel(window);
+                window.dispose();
+            }
         }
+        finally {
+            journal.end();
+        }
+
+        journal.record("undock", dockable.getPersistentID());
 
         appState.persist();
 
@@ -723,17 +775,29 @@ public class DockingAPI {
 
         // can only maximize one panel per root
         if (!dockingState.maximizeRestoreLayout.containsKey(window) && root != null) {
-            internals.getWrapper(dockable).setMaximized(true);
-            DockingListeners.fireMaximizeEvent(dockable, true);
+            DockingJournal journal = internals.getJournal();
+            journal.begin();
 
-            WindowLayout layout = dockingState.getWindowLayout(window);
-            layout.setMaximizedDockable(dockable.getPersistentID());
+            try {
+                internals.getWrapper(dockable).setMaximized(true);
+                DockingListeners.fireMaximizeEvent(dockable, true);
 
-            dockingState.maximizeRestoreLayout.put(window, layout);
+                WindowLayout layout = dockingState.getWindowLayout(window);
+                layout.setMaximizedDockable(dockable.getPersistentID());
 
-            DockingComponentUtils.undockComponents(this, root);
+                dockingState.maximizeRestoreLayout.put(window, layout);
+
+                DockingComponentUtils.undockComponents(this, root);
+
+                dock(dockable, window);
+            }
+            finally {
+                journal.end();
+            }
+
+            journal.record("maximize", dockable.getPersistentID());
 
-            dock(dockable, window);
+            appState.persist();
         }
     }
 
@@ -747,14 +811,26 @@ public class DockingAPI {
 
         // can only minimize if already maximized
         if (dockingState.maximizeRestoreLayout.containsKey(window)) {
-            internals.getWrapper(dockable).setMaximized(false);
-            DockingListeners.fireMaximizeEvent(dockable, false);
+            DockingJournal journal = internals.getJournal();
+            journal.begin();
 
-            dockingState.restoreWindowLayout(window, dockingState.maximizeRestoreLayout.get(window));
+            try {
+                internals.getWrapper(dockable).setMaximized(false);
+                DockingListeners.fireMaximizeEvent(dockable, false);
 
-            dockingState.maximizeRestoreLayout.remove(window);
+                dockingState.restoreWindowLayout(window, dockingState.maximizeRestoreLayout.get(window));
 
-            internals.fireDockedEventForFrame(window);
+                dockingState.maximizeRestoreLayout.remove(window);
+
+                internals.fireDockedEventForFrame(window);
+            }
+            finally {
+                journal.end();
+            }
+
+            journal.record("minimize", dockable.getPersistentID());
+
+            appState.persist();
         }
     }
 
@@ -768,11 +844,23 @@ public class DockingAPI {
         RootDockingPanelAPI root = DockingComponentUtils.rootForWindow(this, window);
 
         if (internals.getWrapper(dockable).isUnpinned()) {
-            root.setDockablePinned(dockable);
+            DockingJournal journal = internals.getJournal();
+            journal.begin();
+
+            try {
+                root.setDockablePinned(dockable);
+
+                internals.getWrapper(dockable).setUnpinned(false);
+
+                DockingListeners.firePinnedEvent(dockable);
+            }
+            finally {
+                journal.end();
+            }
 
-            internals.getWrapper(dockable).setUnpinned(false);
+            journal.record("pin", dockable.getPersistentID());
 
-            DockingListeners.firePinnedEvent(dockable);
+            appState.persist();
         }
     }
 
@@ -843,28 +931,37 @@ public class DockingAPI {
             return;
         }
 
-        Component component = (Component) dockable;
-
-        Point posInFrame = component.getLocation();
-        SwingUtilities.convertPointToScreen(posInFrame, component.getParent());
-        SwingUtilities.convertPointFromScreen(posInFrame, root);
-
-        posInFrame.x += component.getWidth() / 2;
-        posInFrame.y += component.getHeight() / 2;
-
         if (!root.isPinningSupported()) {
             return;
         }
-        undock(dockable);
 
-        // reset the window, undocking the dockable sets it to null
-        internals.getWrapper(dockable).setWindow(window);
-        internals.getWrapper(dockable).setUnpinned(true);
+        DockingJournal journal = internals.getJournal();
+        journal.begin();
+
+        try {
+            undock(dockable);
+
+            // reset the window, undocking the dockable sets it to null
+            internals.getWrapper(dockable).setWindow(window);
+            internals.getWrapper(dockable).setUnpinned(true);
+
+            root.setDockableUnpinned(dockable, location);
+
+            DockingListeners.fireUnpinnedEvent(dockable);
+            DockingListeners.fireHiddenEvent(dockable);
+        }
+        finally {
+            journal.end();
+        }
 
-        root.setDockableUnpinned(dockable, location);
+        if (window == mainWindow) {
+            journal.record("unpin", dockable.getPersistentID(), location.name());
+        }
+        else {
+            journal.invalidate();
+        }
 
-        DockingListeners.fireUnpinnedEvent(dockable);
-        DockingListeners.fireHiddenEvent(dockable);
+        appState.persist();
     }
 
     /**
@@ -934,6 +1031,62 @@ public class DockingAPI {
         }
     }
 
+    /**
+     * Start a batch of docking changes. Until the batch ends, docking panels skip validating their layout,
+     * docking events of the dockables registered with this instance are held and the layout is not persisted.
+     * Batches can be nested, the outermost endBatch finishes the batch. Other docking instances are not affected.
+     */
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    /**
+     * End a batch of docking changes. When the outermost batch ends, all docking roots are validated once,
+     * the held docking events are sent, batch listeners receive a single DockingBatchEvent and the layout is persisted.
+     */
+    public void endBatch() {
+        if (batchDepth == 0) {
+            return;
+        }
+        batchDepth--;
+
+        if (batchDepth == 0) {
+            for (RootDockingPanelAPI root : rootPanels.values()) {
+                root.revalidate();
+                root.repaint();
+            }
+
+            DockingListeners.endBatch(this);
+
+            appState.persist();
+        }
+    }
+
+    /**
+     * Run a set of docking changes as a single batch
+     *
+     * @param changes The docking changes to make
+     */
+    public void batch(Runnable changes) {
+        beginBatch();
+
+        try {
+            changes.run();
+        }
+        finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * Check if a batch of docking changes is in progress
+     *
+     * @return True if beginBatch has been called more times than endBatch
+     */
+    public boolean isBatching() {
+        return batchDepth > 0;
+    }
+
     /**
      * Add a new maximize listener. Will be called when a dockable is maximized
      *
@@ -959,4 +1112,62 @@ public class DockingAPI {
     public void removeDockingListener(DockingListener listener) {
         DockingListeners.removeDockingListener(listener);
     }
+
+    /**
+     * Add a new batch listener. Will be called once at the end of each batch of docking changes made with this instance
+     *
+     * @param listener Listener to add
+     */
+    public void addDockingBatchListener(DockingBatchListener listener) {
+        DockingListeners.addDockingBatchListener(this, listener);
+    }
+
+    /**
+     * Remove a previously added batch listener. No-op if the listener isn't in the list
+     *
+     * @param listener Listener to remove
+     */
+    public void removeDockingBatchListener(DockingBatchListener listener) {
+        DockingListeners.removeDockingBatchListener(this, listener);
+    }
+
+    /**
+     * Add a maximize listener that is only called when the given dockable is maximized or minimized
+     *
+     * @param dockable Dockable to listen to
+     * @param listener Listener to add
+     */
+    public void addMaximizeListener(Dockable dockable, MaximizeListener listener) {
+        DockingListeners.addMaximizeListener(dockable.getPersistentID(), listener);
+    }
+
+    /**
+     * Remove a maximize listener that was added for a single dockable
+     *
+     * @param dockable Dockable the listener was added for
+     * @param listener Listener to remove
+     */
+    public void removeMaximizeListener(Dockable dockable, MaximizeListener listener) {
+        DockingListeners.removeMaximizeListener(dockable.getPersistentID(), listener);
+    }
+
+    /**
+     * Add a docking listener that is only called for events of the given dockable
+     *
+     * @param dockable Dockable to listen to
+     * @param listener Listener to add
+     */
+    public void addDockingListener(Dockable dockable, DockingListener listener) {
+        DockingListeners.addDockingListener(dockable.getPersistentID(), listener);
+    }
+
+    /**
+     * Remove a docking listener that was added for a single dockable
+     *
+     * @param dockable Dockable the listener was added for
+     * @param listener Listener to remove
+     */
+    public void removeDockingListener(Dockable dockable, DockingListener listener) {
+        DockingListeners.removeDockingListener(dockable.getPersistentID(), listener);
+    }
 }
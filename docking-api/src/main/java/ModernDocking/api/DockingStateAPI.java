@@ -32,10 +32,6 @@ import ModernDocking.ui.ToolbarLocation;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ComponentAdapter;
-import java.awt.event.ComponentEvent;
-import java.awt.event.HierarchyEvent;
-import java.awt.event.HierarchyListener;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
@@ -111,35 +107,46 @@ public class DockingStateAPI {
      * @param layout Application layout to restore
      */
     public void restoreApplicationLayout(ApplicationLayout layout) {
-        // get rid of all existing windows and undock all dockables
-        Set<Window> windows = new HashSet<>(docking.getRootPanels().keySet());
-        for (Window window : windows) {
-            DockingComponentUtils.undockComponents(docking, window);
-
-            // only dispose this window if we created it
-            if (window instanceof FloatingFrame) {
-                window.dispose();
+        DockingJournal journal = DockingInternal.get(docking).getJournal();
+        journal.begin();
+
+        try {
+            // get rid of all existing windows and undock all dockables
+            Set<Window> windows = new HashSet<>(docking.getRootPanels().keySet());
+            for (Window window : windows) {
+                DockingComponentUtils.undockComponents(docking, window);
+
+                // only dispose this window if we created it
+                if (window instanceof FloatingFrame) {
+                    window.dispose();
+                }
             }
-        }
 
-        docking.getAppState().setPaused(true);
+            docking.getAppState().setPaused(true);
 
-        // setup main frame
-        restoreWindowLayout(docking.getMainWindow(), layout.getMainFrameLayout());
+            // setup main frame
+            restoreWindowLayout(docking.getMainWindow(), layout.getMainFrameLayout());
 
-        // setup rest of floating windows from layout
-        for (WindowLayout frameLayout : layout.getFloatingFrameLayouts()) {
-            FloatingFrame frame = new FloatingFrame(docking, frameLayout.getLocation(), frameLayout.getSize(), frameLayout.getState());
+            // setup rest of floating windows from layout
+            for (WindowLayout frameLayout : layout.getFloatingFrameLayouts()) {
+                FloatingFrame frame = new FloatingFrame(docking, frameLayout.getLocation(), frameLayout.getSize(), frameLayout.getState());
 
-            restoreWindowLayout(frame, frameLayout);
-        }
+                restoreWindowLayout(frame, frameLayout);
+            }
 
-        docking.getAppState().setPaused(false);
-        docking.getAppState().persist();
+            docking.getAppState().setPaused(false);
+            docking.getAppState().persist();
 
-        DockingInternal.fireDockedEventForAll(docking);
+            DockingInternal.fireDockedEventForAll(docking);
 
-        DockingLayouts.layoutRestored(layout);
+            DockingLayouts.layoutRestored(layout);
+        }
+        finally {
+            journal.end();
+        }
+
+        // the journal can't describe a restored layout, take a new snapshot
+        journal.invalidate();
     }
 
     /**
@@ -149,54 +156,65 @@ public class DockingStateAPI {
      * @param layout The layout to restore
      */
     public void restoreWindowLayout(Window window, WindowLayout layout) {
-        RootDockingPanelAPI root = DockingComponentUtils.rootForWindow(docking, window);
+        DockingJournal journal = DockingInternal.get(docking).getJournal();
+        journal.begin();
 
-        if (root == null) {
-            throw new RootDockingPanelNotFoundException(window);
-        }
+        try {
+            RootDockingPanelAPI root = DockingComponentUtils.rootForWindow(docking, window);
 
-        if (layout.hasSizeAndLocationInformation()) {
-            window.setLocation(layout.getLocation());
-            window.setSize(layout.getSize());
+            if (root == null) {
+                throw new RootDockingPanelNotFoundException(window);
+            }
 
-            if (window instanceof JFrame) {
-                ((JFrame) window).setExtendedState(layout.getState());
+            if (layout.hasSizeAndLocationInformation()) {
+                window.setLocation(layout.getLocation());
+                window.setSize(layout.getSize());
+
+                if (window instanceof JFrame) {
+                    ((JFrame) window).setExtendedState(layout.getState());
+                }
             }
-        }
 
-        DockingComponentUtils.undockComponents(docking, root);
+            DockingComponentUtils.undockComponents(docking, root);
 
-        root.setPanel(restoreState(docking, layout.getRootNode(), window));
+            root.setPanel(restoreState(docking, layout.getRootNode(), window));
 
-        // undock and destroy any failed dockables
-        undockFailedComponents(docking, root);
+            // undock and destroy any failed dockables
+            undockFailedComponents(docking, root);
 
-        restoreProperSplitLocations(root);
+            restoreProperSplitLocations(root);
 
-        for (String id : layout.getWestUnpinnedToolbarIDs()) {
-            Dockable dockable = getDockable(docking, id);
-            root.setDockableUnpinned(dockable, ToolbarLocation.WEST);
-            root.hideUnpinnedPanels();
-            getWrapper(dockable).setUnpinned(true);
-        }
+            for (String id : layout.getWestUnpinnedToolbarIDs()) {
+                Dockable dockable = getDockable(docking, id);
+                root.setDockableUnpinned(dockable, ToolbarLocation.WEST);
+                root.hideUnpinnedPanels();
+                getWrapper(dockable).setUnpinned(true);
+            }
 
-        for (String id : layout.getEastUnpinnedToolbarIDs()) {
-            Dockable dockable = getDockable(docking, id);
-            root.setDockableUnpinned(dockable, ToolbarLocation.EAST);
-            root.hideUnpinnedPanels();
-            getWrapper(dockable).setUnpinned(true);
-        }
+            for (String id : layout.getEastUnpinnedToolbarIDs()) {
+                Dockable dockable = getDockable(docking, id);
+                root.setDockableUnpinned(dockable, ToolbarLocation.EAST);
+                root.hideUnpinnedPanels();
+                getWrapper(dockable).setUnpinned(true);
+            }
 
-        for (String id : layout.getSouthUnpinnedToolbarIDs()) {
-            Dockable dockable = getDockable(docking, id);
-            root.setDockableUnpinned(dockable, ToolbarLocation.SOUTH);
-            root.hideUnpinnedPanels();
-            getWrapper(dockable).setUnpinned(true);
-        }
+            for (String id : layout.getSouthUnpinnedToolbarIDs()) {
+                Dockable dockable = getDockable(docking, id);
+                root.setDockableUnpinned(dockable, ToolbarLocation.SOUTH);
+                root.hideUnpinnedPanels();
+                getWrapper(dockable).setUnpinned(true);
+            }
 
-        if (layout.getMaximizedDockable() != null) {
-            docking.maximize(getDockable(docking, layout.getMaximizedDockable()));
+            if (layout.getMaximizedDockable() != null) {
+                docking.maximize(getDockable(docking, layout.getMaximizedDockable()));
+            }
         }
+        finally {
+            journal.end();
+        }
+
+        // restoring a single window also needs a new snapshot
+        journal.invalidate();
     }
 
     private void findSplitPanels(Container container, List<DockedSplitPanel> panels) {
@@ -244,6 +262,8 @@ public class DockingStateAPI {
         }
 
         if (!paused) {
+            // the journal can't describe a restored state, take a new snapshot
+            DockingInternal.get(docking).getJournal().invalidate();
             docking.getAppState().persist();
         }
     }
@@ -275,7 +295,7 @@ public class DockingStateAPI {
     }
 
     private DockedTabbedPanel restoreTabbed(DockingAPI docking, TabState state, Window window) {
-        DockedTabbedPanel panel = null;
+        List<DockableWrapper> wrappers = new ArrayList<>();
 
         for (String persistentID : state.getPersistentIDs()) {
             Dockable dockable = getDockable(docking, persistentID);
@@ -289,16 +309,17 @@ public class DockingStateAPI {
             DockableWrapper wrapper = DockingInternal.get(docking).getWrapper(dockable);
             wrapper.setWindow(window);
 
-            if (panel == null) {
-                panel = new DockedTabbedPanel(docking, wrapper);
-            } else {
-                panel.addPanel(wrapper);
-            }
+            wrappers.add(wrapper);
         }
 
-        if (panel == null) {
+        if (wrappers.isEmpty()) {
             throw new RuntimeException("DockedTabbedPanel has no tabs");
         }
+
+        // add the rest of the tabs at once instead of selecting each one as it's added
+        DockedTabbedPanel panel = new DockedTabbedPanel(docking, wrappers.get(0));
+        panel.addPanels(wrappers.subList(1, wrappers.size()), -1);
+
         return panel;
     }
 
@@ -365,7 +386,7 @@ public class DockingStateAPI {
     }
 
     private DockedTabbedPanel restoreTabbed(DockingAPI docking, DockingTabPanelNode node, Window window) {
-        DockedTabbedPanel panel = null;
+        List<DockableWrapper> wrappers = new ArrayList<>();
 
         for (DockingSimplePanelNode simpleNode : node.getPersistentIDs()) {
             Dockable dockable = getDockable(docking, simpleNode.getPersistentID());
@@ -382,21 +403,26 @@ public class DockingStateAPI {
 
             wrapper.setWindow(window);
 
-            if (panel == null) {
-                panel = new DockedTabbedPanel(docking, wrapper);
-            } else {
-                panel.addPanel(wrapper);
-            }
+            wrappers.add(wrapper);
         }
 
-        if (panel == null) {
+        if (wrappers.isEmpty()) {
             throw new RuntimeException("DockedTabbedPanel has no tabs");
         }
 
-        if (!node.getSelectedTabID().isEmpty()) {
-            panel.bringToFront(getDockable(docking, node.getSelectedTabID()));
+        // select the saved tab once, after all the tabs are added. the last tab is selected if there's no saved tab
+        int selectedIndex = -1;
+
+        for (int i = 0; i < wrappers.size(); i++) {
+            if (wrappers.get(i).getDockable().getPersistentID().equals(node.getSelectedTabID())) {
+                selectedIndex = i;
+                break;
+            }
         }
 
+        DockedTabbedPanel panel = new DockedTabbedPanel(docking, wrappers.get(0));
+        panel.addPanels(wrappers.subList(1, wrappers.size()), selectedIndex);
+
         return panel;
     }
 
@@ -460,97 +486,17 @@ public class DockingStateAPI {
         }
     }
 
+    // each split applies its divider location the next time it's laid out, after its parent split has been laid out.
+    // every divider in the window is placed in a single layout pass, before the first paint
     private void restoreProperSplitLocations(RootDockingPanelAPI root) {
-        SwingUtilities.invokeLater(() -> {
-            // find all the splits and restore their divider locations from the bottom up
-            List<DockedSplitPanel> splitPanels = new ArrayList<>();
+        List<DockedSplitPanel> splitPanels = new ArrayList<>();
 
-            // find all the splits recursively. Pushing new splits onto the front of the deque. this forces the deepest
-            // splits to be adjusted last, keeping their position proper.
-            findSplitPanels(root, splitPanels);
+        findSplitPanels(root, splitPanels);
 
-            List<JSplitPane> splits = new ArrayList<>();
-            List<Double> proportions = new ArrayList<>();
-
-            // loop through and restore split proportions, bottom up
-            for (DockedSplitPanel splitPanel : splitPanels) {
-                splits.add(splitPanel.getSplitPane());
-                proportions.add(splitPanel.getLastRequestedDividerProportion());
-            }
-            restoreSplits(splits, proportions);
-        });
-    }
-
-    private void restoreSplits(List<JSplitPane> splits, List<Double> proportions) {
-        if (splits.size() != proportions.size()) {
-            return;
+        for (DockedSplitPanel splitPanel : splitPanels) {
+            splitPanel.setDividerLocation(splitPanel.getLastRequestedDividerProportion());
         }
-        if (splits.isEmpty()) {
-            return;
-        }
-
-        JSplitPane splitPane = splits.get(0);
-        double proportion = proportions.get(0);
-
-        splits.remove(0);
-        proportions.remove(0);
 
-        restoreSplit(splitPane, proportion, splits, proportions);
-    }
-
-	/**
-	 * Restore all splits in the window, starting with the outer most splits and working our way in. Only moving to the next when the previous
-	 * has been completely set.
-	 *
-	 * @param splitPane The current splitpane we're setting
-	 * @param proportion The proportion of the splitpane
-	 * @param splits The list of splitpanes left
-	 * @param proportions The list of proportions for the remaining splitpanes
-	 */
-    private void restoreSplit(JSplitPane splitPane, double proportion, List<JSplitPane> splits, List<Double> proportions) {
-        // calling setDividerLocation on a JSplitPane that isn't visible does nothing, so we need to check if it is showing first
-        if (splitPane.isShowing()) {
-            if (splitPane.getWidth() > 0 && splitPane.getHeight() > 0) {
-                splitPane.setDividerLocation(proportion);
-
-                if (!splits.isEmpty()) {
-                    SwingUtilities.invokeLater(() -> {
-                        JSplitPane nextSplit = splits.get(0);
-                        double nextProportion = proportions.get(0);
-
-                        splits.remove(0);
-                        proportions.remove(0);
-
-                        restoreSplit(nextSplit, nextProportion, splits, proportions);
-                    });
-                }
-            } else {
-                // split hasn't been completely calculated yet, wait until componentResize
-                splitPane.addComponentListener(new ComponentAdapter() {
-                    @Override
-                    public void componentResized(ComponentEvent e) {
-                        // remove this listener, it's a one off
-                        splitPane.removeComponentListener(this);
-                        // call the function again, this time it should actually set the divider location
-                        restoreSplit(splitPane, proportion, splits, proportions);
-                    }
-                });
-            }
-        } else {
-            // split hasn't been shown yet, wait until it's showing
-            splitPane.addHierarchyListener(new HierarchyListener() {
-                @Override
-                public void hierarchyChanged(HierarchyEvent e) {
-                    boolean isShowingChangeEvent = (e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0;
-
-                    if (isShowingChangeEvent && splitPane.isShowing()) {
-                        // remove this listener, it's a one off
-                        splitPane.removeHierarchyListener(this);
-                        // call the function again, this time it might set the size or wait for componentResize
-                        restoreSplit(splitPane, proportion, splits, proportions);
-                    }
-                }
-            });
-        }
+        root.revalidate();
     }
 }
@@ -0,0 +1,85 @@
+/*
+Copyright (c) 2024 Andrew Auclair
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package ModernDocking.api;
+
+import ModernDocking.layouts.ApplicationLayout;
+import ModernDocking.layouts.DockingSimplePanelNode;
+import ModernDocking.layouts.WindowLayout;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Encodes and decodes layouts for LayoutPersistenceAPI. Codecs only deal with the layout data. Writing never
+ * accesses the dockables or any Swing components, so layouts can be written off of the EDT. Reading a tab group
+ * looks up the class names of its registered dockables, so layouts should be read on the EDT.
+ */
+public interface LayoutCodec {
+    /**
+     * Check if this codec is able to decode data that starts with the given bytes
+     *
+     * @param header The first bytes of the data
+     * @param length Number of valid bytes in header
+     * @return True if this codec can decode the data
+     */
+    boolean canDecode(byte[] header, int length);
+
+    /**
+     * Write an application layout and the properties of the undocked dockables
+     *
+     * @param out Stream to write to
+     * @param layout The layout to write
+     * @param undocked Properties of undocked dockables
+     * @throws IOException Thrown if the layout could not be written
+     */
+    void writeApplicationLayout(OutputStream out, ApplicationLayout layout, List<DockingSimplePanelNode> undocked) throws IOException;
+
+    /**
+     * Read an application layout and the properties of the undocked dockables
+     *
+     * @param in Stream to read from
+     * @param undocked List to fill with the properties of undocked dockables
+     * @return The layout that was read
+     * @throws IOException Thrown if the layout could not be read
+     */
+    ApplicationLayout readApplicationLayout(InputStream in, List<DockingSimplePanelNode> undocked) throws IOException;
+
+    /**
+     * Write a single window layout
+     *
+     * @param out Stream to write to
+     * @param layout The layout to write
+     * @throws IOException Thrown if the layout could not be written
+     */
+    void writeWindowLayout(OutputStream out, WindowLayout layout) throws IOException;
+
+    /**
+     * Read a single window layout
+     *
+     * @param in Stream to read from
+     * @return The layout that was read, or null if there is no layout
+     * @throws IOException Thrown if the layout could not be read
+     */
+    WindowLayout readWindowLayout(InputStream in) throws IOException;
+}
@@ -0,0 +1,542 @@
+/*
+Copyright (c) 2024 Andrew Auclair
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package ModernDocking.api;
+
+import ModernDocking.layouts.*;
+
+import javax.xml.stream.*;
+import java.awt.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Layout codec that reads and writes the XML layout format
+ */
+public class XMLLayoutCodec implements LayoutCodec {
+    private static final String NL = "\n";
+    private final DockingAPI docking;
+
+    /**
+     * Create a new XML codec
+     *
+     * @param docking The docking instance the layouts belong to
+     */
+    public XMLLayoutCodec(DockingAPI docking) {
+        this.docking = docking;
+    }
+
+    @Override
+    public boolean canDecode(byte[] header, int length) {
+        // skip a UTF-8 byte order mark and any leading whitespace, XML always starts with a tag
+        int start = length >= 3 && (header[0] & 0xFF) == 0xEF && (header[1] & 0xFF) == 0xBB && (header[2] & 0xFF) == 0xBF ? 3 : 0;
+
+        for (int i = start; i < length; i++) {
+            if (!Character.isWhitespace(header[i])) {
+                return header[i] == '<';
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void writeApplicationLayout(OutputStream out, ApplicationLayout layout, List<DockingSimplePanelNode> undocked) throws IOException {
+        XMLOutputFactory factory = XMLOutputFactory.newInstance();
+
+        try {
+            XMLStreamWriter writer = factory.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+
+            writer.writeStartDocument();
+            writer.writeCharacters(NL);
+            writer.writeStartElement("app-layout");
+
+            if (layout.getJournalSequence() != 0) {
+                writer.writeAttribute("journal-sequence", String.valueOf(layout.getJournalSequence()));
+            }
+
+            // layouts can be created without a main frame
+            if (layout.getMainFrameLayout() != null) {
+                saveLayoutToFile(writer, layout.getMainFrameLayout(), true);
+            }
+
+            for (WindowLayout frameLayout : layout.getFloatingFrameLayouts()) {
+                saveLayoutToFile(writer, frameLayout, false);
+            }
+
+            writer.writeStartElement("undocked");
+            writer.writeCharacters(NL);
+
+            for (DockingSimplePanelNode node : undocked) {
+                writeSimpleNodeToFile(writer, node);
+            }
+
+            writer.writeEndElement();
+            writer.writeCharacters(NL);
+
+            writer.writeEndElement();
+
+            writer.writeEndDocument();
+
+            writer.close();
+        }
+        catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public ApplicationLayout readApplicationLayout(InputStream in, List<DockingSimplePanelNode> undocked) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+
+        XMLStreamReader reader = null;
+
+        try {
+            reader = factory.createXMLStreamReader(in);
+
+            ApplicationLayout layout = new ApplicationLayout();
+
+            while (reader.hasNext()) {
+                int next = reader.nextTag();
+
+                if (next == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("app-layout")) {
+                    String journalSequence = reader.getAttributeValue(null, "journal-sequence");
+
+                    if (journalSequence != null) {
+                        layout.setJournalSequence(Long.parseLong(journalSequence));
+                    }
+                }
+                else if (next == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("layout")) {
+                    layout.addFrame(readLayoutFromReader(reader));
+                }
+                else if (next == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("undocked")) {
+                    readUndocked(reader, undocked);
+                }
+                else if (next == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("app-layout")) {
+                    break;
+                }
+            }
+
+            return layout;
+        }
+        catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+        finally {
+            closeReader(reader);
+        }
+    }
+
+    @Override
+    public void writeWindowLayout(OutputStream out, WindowLayout layout) throws IOException {
+        XMLOutputFactory factory = XMLOutputFactory.newInstance();
+
+        try {
+            XMLStreamWriter writer = factory.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+
+            writer.writeStartDocument();
+
+            saveLayoutToFile(writer, layout, false);
+
+            writer.writeEndDocument();
+
+            writer.close();
+        }
+        catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public WindowLayout readWindowLayout(InputStream in) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+
+        XMLStreamReader reader = null;
+
+        try {
+            reader = factory.createXMLStreamReader(in);
+
+            while (reader.hasNext()) {
+                int next = reader.nextTag();
+
+                if (next == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("layout")) {
+                    return readLayoutFromReader(reader);
+                }
+            }
+            return null;
+        }
+        catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+        finally {
+            closeReader(reader);
+        }
+    }
+
+    private void closeReader(XMLStreamReader reader) {
+        try {
+            if (reader != null) {
+                reader.close();
+            }
+        }
+        catch (XMLStreamException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // read the properties of undocked dockables from the file. these are applied by LayoutPersistenceAPI
+    private void readUndocked(XMLStreamReader reader, List<DockingSimplePanelNode> undocked) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int next = reader.nextTag();
+
+            if (next == XMLStreamConstants.START_ELEMENT) {
+                if (reader.getLocalName().equals("simple")) {
+                    undocked.add(readSimpleNodeFromFile(reader));
+                }
+            }
+            else if (next == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("undocked")) {
+                break;
+            }
+        }
+    }
+
+    private void saveLayoutToFile(XMLStreamWriter writer, WindowLayout layout, boolean isMainFrame) throws XMLStreamException {
+        writer.writeCharacters(NL);
+        writer.writeStartElement("layout");
+        writer.writeAttribute("main-frame", String.valueOf(isMainFrame));
+        writer.writeAttribute("location", layout.getLocation().x + "," + layout.getLocation().y);
+        writer.writeAttribute("size", layout.getSize().width + "," + layout.getSize().height);
+        writer.writeAttribute("state", String.valueOf(layout.getState()));
+
+        if (layout.getMaximizedDockable() != null) {
+            writer.writeAttribute("max-dockable", layout.getMaximizedDockable());
+        }
+        writer.writeCharacters(NL);
+
+        writer.writeStartElement("westToolbar");
+        writer.writeCharacters(NL);
+
+        for (String id : layout.getWestUnpinnedToolbarIDs()) {
+            writer.writeStartElement("dockable");
+            writer.writeAttribute("id", id);
+            writer.writeEndElement();
+            writer.writeCharacters(NL);
+        }
+
+        writer.writeEndElement();
+        writer.writeCharacters(NL);
+        writer.writeStartElement("eastToolbar");
+        writer.writeCharacters(NL);
+
+        for (String id : layout.getEastUnpinnedToolbarIDs()) {
+            writer.writeStartElement("dockable");
+            writer.writeAttribute("id", id);
+            writer.writeEndElement();
+            writer.writeCharacters(NL);
+        }
+
+        writer.writeEndElement();
+        writer.writeCharacters(NL);
+        writer.writeStartElement("southToolbar");
+        writer.writeCharacters(NL);
+
+        for (String id : layout.getSouthUnpinnedToolbarIDs()) {
+            writer.writeStartElement("dockable");
+            writer.writeAttribute("id", id);
+            writer.writeEndElement();
+            writer.writeCharacters(NL);
+        }
+
+        writer.writeEndElement();
+        writer.writeCharacters(NL);
+
+        writeNodeToFile(writer, layout.getRootNode());
+
+        writer.writeEndElement();
+        writer.writeCharacters(NL);
+    }
+
+    private void writeNodeToFile(XMLStreamWriter writer, DockingLayoutNode node) throws XMLStreamException {
+        if (node instanceof DockingSimplePanelNode) {
+            writeSimpleNodeToFile(writer, (DockingSimplePanelNode) node);
+        }
+        else if (node instanceof DockingSplitPanelNode) {
+            writeSplitNodeToFile(writer, (DockingSplitPanelNode) node);
+        }
+        else if (node instanceof DockingTabPanelNode) {
+            writeTabbedNodeToFile(writer, (DockingTabPanelNode) node);
+        }
+    }
+
+    private void writeSimpleNodeToFile(XMLStreamWriter writer, DockingSimplePanelNode node) throws XMLStreamException {
+        writer.writeStartElement("simple");
+        writer.writeAttribute("persistentID", node.getPersistentID());
+        // the class name is captured when the node is created
+        writer.writeAttribute("class-name", node.getClassName() != null ? node.getClassName() : "");
+        writer.writeCharacters(NL);
+
+        writer.writeStartElement("properties");
+
+        Map<String, String> properties = node.getProperties();
+
+        for (String key : properties.keySet()) {
+            String value = properties.get(key);
+
+            if (value != null) {
+                writer.writeAttribute(key, value);
+            }
+        }
+
+        writer.writeEndElement();
+        writer.writeCharacters(NL);
+
+        writer.writeEndElement();
+        writer.writeCharacters(NL);
+    }
+
+    private void writeSplitNodeToFile(XMLStreamWriter writer, DockingSplitPanelNode node) throws XMLStreamException {
+        writer.writeStartElement("split");
+        writer.writeAttribute("orientation", String.valueOf(node.getOrientation()));
+        writer.writeAttribute("divider-proportion", String.valueOf(node.getDividerProportion()));
+        writer.writeCharacters(NL);
+
+        writer.writeStartElement("left");
+        writer.writeCharacters(NL);
+        writeNodeToFile(writer, node.getLeft());
+        writer.writeEndElement();
+        writer.writeCharacters(NL);
+
+        writer.writeStartElement("right");
+        writer.writeCharacters(NL);
+        writeNodeToFile(writer, node.getRight());
+        writer.writeEndElement();
+        writer.writeCharacters(NL);
+
+        writer.writeEndElement();
+        writer.writeCharacters(NL);
+    }
+
+    private void writeTabbedNodeToFile(XMLStreamWriter writer, DockingTabPanelNode node) throws XMLStreamException {
+        writer.writeStartElement("tabbed");
+        writer.writeCharacters(NL);
+
+        writer.writeStartElement("selectedTab");
+        writer.writeAttribute("persistentID", node.getSelectedTabID());
+        writer.writeCharacters(NL);
+        writer.writeEndElement();
+        writer.writeCharacters(NL);
+
+        for (DockingSimplePanelNode simpleNode : node.getPersistentIDs()) {
+            writer.writeStartElement("tab");
+            writer.writeAttribute("persistentID", simpleNode.getPersistentID());
+            writer.writeCharacters(NL);
+
+            writer.writeStartElement("properties");
+
+            Map<String, String> properties = simpleNode.getProperties();
+
+            for (String key : properties.keySet()) {
+                String value = properties.get(key);
+
+                if (value != null) {
+                    writer.writeAttribute(key, value);
+                }
+            }
+
+            writer.writeEndElement();
+            writer.writeCharacters(NL);
+
+            writer.writeEndElement();
+            writer.writeCharacters(NL);
+        }
+
+        writer.writeEndElement();
+        writer.writeCharacters(NL);
+    }
+
+    private WindowLayout readLayoutFromReader(XMLStreamReader reader) throws XMLStreamException {
+        boolean isMainFrame = Boolean.parseBoolean(reader.getAttributeValue(0));
+        String locStr = reader.getAttributeValue(1);
+        String sizeStr = reader.getAttributeValue(2);
+        int state = Integer.parseInt(reader.getAttributeValue(3));
+        String maximizedDockable = reader.getAttributeCount() >= 5 ? reader.getAttributeValue(4) : null;
+
+        Point location = new Point(Integer.parseInt(locStr.substring(0, locStr.indexOf(","))), Integer.parseInt(locStr.substring(locStr.indexOf(",") + 1)));
+        Dimension size = new Dimension(Integer.parseInt(sizeStr.substring(0, sizeStr.indexOf(","))), Integer.parseInt(sizeStr.substring(sizeStr.indexOf(",") + 1)));
+
+        java.util.List<String> westToolbar = readToolbarFromFile(reader, "westToolbar");
+        java.util.List<String> eastToolbar = readToolbarFromFile(reader, "eastToolbar");
+        java.util.List<String> southToolbar = readToolbarFromFile(reader, "southToolbar");
+
+        WindowLayout layout = new WindowLayout(isMainFrame, location, size, state, readNodeFromFile(reader, "layout"));
+
+        layout.setWestUnpinnedToolbarIDs(westToolbar);
+        layout.setEastUnpinnedToolbarIDs(eastToolbar);
+        layout.setSouthUnpinnedToolbarIDs(southToolbar);
+
+        layout.setMaximizedDockable(maximizedDockable);
+
+        return layout;
+    }
+
+    private java.util.List<String> readToolbarFromFile(XMLStreamReader reader, String name) throws XMLStreamException {
+        List<String> ids = new ArrayList<>();
+
+        while (reader.hasNext()) {
+            int next = reader.nextTag();
+
+            if (next == XMLStreamConstants.START_ELEMENT) {
+                if (reader.getLocalName().equals("dockable")) {
+                    ids.add(reader.getAttributeValue(0));
+                }
+            }
+            else if (next == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals(name)) {
+                break;
+            }
+        }
+        return ids;
+    }
+
+    private DockingLayoutNode readNodeFromFile(XMLStreamReader reader, String name) throws XMLStreamException {
+        DockingLayoutNode node = null;
+        while (reader.hasNext()) {
+            int next = reader.nextTag();
+
+            if (next == XMLStreamConstants.START_ELEMENT) {
+                if (reader.getLocalName().equals("simple")) {
+                    node = readSimpleNodeFromFile(reader);
+                }
+                else if (reader.getLocalName().equals("split")) {
+                    node = readSplitNodeFromFile(reader);
+                }
+                else if (reader.getLocalName().equals("tabbed")) {
+                    node = readTabNodeFromFile(reader);
+                }
+            }
+            else if (next == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals(name)) {
+                break;
+            }
+        }
+        return node;
+    }
+
+    private DockingSimplePanelNode readSimpleNodeFromFile(XMLStreamReader reader) throws XMLStreamException {
+        String persistentID = reader.getAttributeValue(0);
+        String className = reader.getAttributeValue(1);
+
+        return new DockingSimplePanelNode(docking, persistentID, className, readProperties(reader));
+    }
+
+    // expects that we haven't already read the starting element for <properties>
+    private Map<String, String> readProperties(XMLStreamReader reader) throws XMLStreamException {
+        Map<String, String> properties = new HashMap<>();
+
+        while (reader.hasNext()) {
+            int next = reader.nextTag();
+
+            if (next == XMLStreamConstants.START_ELEMENT) {
+                if (reader.getLocalName().equals("properties")) {
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        properties.put(String.valueOf(reader.getAttributeName(i)), reader.getAttributeValue(i));
+                    }
+                }
+            }
+            else if (next == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("properties")) {
+                break;
+            }
+        }
+        return properties;
+    }
+
+    private DockingSplitPanelNode readSplitNodeFromFile(XMLStreamReader reader) throws XMLStreamException {
+        DockingLayoutNode left = null;
+        DockingLayoutNode right = null;
+
+        int orientation = Integer.parseInt(reader.getAttributeValue(0));
+        double dividerProportion = Double.parseDouble(reader.getAttributeValue(1));
+
+        if (dividerProportion < 0.0) {
+            dividerProportion = 0.0;
+        }
+        else if (dividerProportion > 1.0) {
+            dividerProportion = 1.0;
+        }
+
+        while (reader.hasNext()) {
+            int next = reader.nextTag();
+
+            if (next == XMLStreamConstants.START_ELEMENT) {
+                if (reader.getLocalName().equals("left")) {
+                    left = readNodeFromFile(reader, "left");
+                }
+                else if (reader.getLocalName().equals("right")) {
+                    right = readNodeFromFile(reader, "right");
+                }
+            }
+            else if (next == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("split")) {
+                break;
+            }
+        }
+        return new DockingSplitPanelNode(docking, left, right, orientation, dividerProportion);
+    }
+
+    private DockingTabPanelNode readTabNodeFromFile(XMLStreamReader reader) throws XMLStreamException {
+        DockingTabPanelNode node = null;
+
+        String currentPersistentID = "";
+
+        while (reader.hasNext()) {
+            int next = reader.nextTag();
+
+            if (next == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("selectedTab")) {
+                String persistentID = reader.getAttributeValue(0);
+                node = new DockingTabPanelNode(docking, persistentID);
+            }
+            else if (next == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("tab")) {
+                currentPersistentID = reader.getAttributeValue(0);
+
+                if (node != null) {
+                    node.addTab(currentPersistentID);
+                }
+            }
+            else if (next == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("properties")) {
+                Map<String, String> properties = new HashMap<>();
+
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    properties.put(String.valueOf(reader.getAttributeName(i)), reader.getAttributeValue(i));
+                }
+
+                if (node != null) {
+                    node.setProperties(currentPersistentID, properties);
+                }
+            }
+            else if (next == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("tabbed")) {
+                break;
+            }
+        }
+        return node;
+    }
+}
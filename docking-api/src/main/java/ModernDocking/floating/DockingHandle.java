@@ -23,6 +23,7 @@ package ModernDocking.floating;
 
 import ModernDocking.DockingRegion;
 import ModernDocking.ui.DockingSettings;
+import ModernDocking.ui.DockingTheme;
 
 import javax.swing.*;
 import java.awt.*;
@@ -36,6 +37,12 @@ public class DockingHandle extends JLabel {
 	 */
 	public static final int HANDLE_ICON_SIZE = 32;
 
+	/**
+	 * Space around the handle for the background drawn behind root and pin handles
+	 */
+	static final int SPRITE_PADDING = 9;
+	private static final int SPRITE_SIZE = HANDLE_ICON_SIZE + (SPRITE_PADDING * 2);
+
 	/**
 	 * The region that this docking handle display is drawing
 	 */
@@ -46,6 +53,10 @@ public class DockingHandle extends JLabel {
 	private final boolean isRoot;
 	private final boolean isPin;
 
+	// names of the cached images of this handle
+	private final String spriteName;
+	private final String hoverSpriteName;
+
 	/**
 	 * Create a new DockingHandle
 	 *
@@ -57,6 +68,9 @@ public class DockingHandle extends JLabel {
 		this.isRoot = isRoot;
 		this.isPin = false;
 
+		spriteName = (isRoot ? "root-" : "dockable-") + region;
+		hoverSpriteName = spriteName + "-hover";
+
 		// set the bounds (we're not in a layout manager) and make sure this handle isn't visible
 		setBounds(0, 0, HANDLE_ICON_SIZE, HANDLE_ICON_SIZE);
 		setVisible(false);
@@ -67,6 +81,9 @@ public class DockingHandle extends JLabel {
 		this.isRoot = false;
 		this.isPin = true;
 
+		spriteName = "pin-" + region;
+		hoverSpriteName = spriteName + "-hover";
+
 		// set the bounds (we're not in a layout manager) and make sure this handle isn't visible
 		setBounds(0, 0, HANDLE_ICON_SIZE, HANDLE_ICON_SIZE);
 		setVisible(false);
@@ -103,32 +120,41 @@ public class DockingHandle extends JLabel {
 	 * Paint the handle
 	 *
 	 * @param g used to do the main paint operations
-	 * @param g2 used to draw the dashed lines on top
 	 * @param mouseOver is the mouse over this handle?
 	 */
-	public void paintHandle(Graphics g, Graphics2D g2, boolean mouseOver) {
-		Rectangle bounds = getBounds();
+	public void paintHandle(Graphics g, boolean mouseOver) {
+		Image sprite = HandleSpriteCache.getSprite((Graphics2D) g, mouseOver ? hoverSpriteName : spriteName, SPRITE_SIZE, SPRITE_SIZE,
+				spriteGraphics -> render(spriteGraphics, new Rectangle(SPRITE_PADDING, SPRITE_PADDING, HANDLE_ICON_SIZE, HANDLE_ICON_SIZE), mouseOver));
 
-		Color background = DockingSettings.getHandleBackground();
-		Color hover = DockingSettings.getHandleForeground();
-		Color outline = DockingSettings.getHandleForeground();
+		g.drawImage(sprite, getX() - SPRITE_PADDING, getY() - SPRITE_PADDING, SPRITE_SIZE, SPRITE_SIZE, null);
+	}
+
+	// draw the handle at the given bounds, only used to draw the cached sprites
+	private void render(Graphics2D g, Rectangle bounds, boolean mouseOver) {
+		DockingTheme theme = DockingSettings.getTheme();
+		Color background = theme.getHandleBackground();
+		Color hover = theme.getHandleForeground();
+		Color outline = theme.getHandleForeground();
+
+		Graphics2D g2 = (Graphics2D) g.create();
+		g2.setStroke(theme.getHandleDashedStroke());
 
 		// each root handle has its own background. we have to draw them here.
 		// the dockables all share one big root that is drawn in DockingHandles
 		if (isRoot || isPin) {
 			g.setColor(background);
-			drawBackground(g);
+			drawBackground(g, bounds);
 		}
 
 		if (mouseOver && isPin) {
 			int quarterWidth = bounds.width / 4;
-			int x1 = getX() + quarterWidth;
+			int x1 = bounds.x + quarterWidth;
 
 			g.fillRect(x1, bounds.y, bounds.width / 2, bounds.height / 2);
 		}
 		else if (mouseOver) {
 			g.setColor(hover);
-			fillMouseOverRegion(g);
+			fillMouseOverRegion(g, bounds);
 		}
 
 		// draw the outline over the mouse over
@@ -137,15 +163,15 @@ public class DockingHandle extends JLabel {
 
 		// only draw the dashed line if the region isn't center and these are not root handles
 		if (region != DockingRegion.CENTER && !isRoot && !isPin) {
-			drawDashedLine(g2);
+			drawDashedLine(g2, bounds);
 		}
 
 		if (isRoot && region != DockingRegion.CENTER) {
-			drawRootOutline(g);
+			drawRootOutline(g, bounds);
 		}
 		else if (isPin) {
 			int quarterWidth = bounds.width / 4;
-			int x1 = getX() + quarterWidth;
+			int x1 = bounds.x + quarterWidth;
 
 			g.drawLine(x1, bounds.y, x1 + (bounds.width / 2), bounds.y);
 			g.drawLine(x1, bounds.y+ (bounds.height / 2), x1 + (bounds.width / 2), bounds.y+ (bounds.height / 2));
@@ -158,15 +184,17 @@ public class DockingHandle extends JLabel {
 		else {
 			g.drawRect(bounds.x, bounds.y, bounds.width, bounds.height);
 		}
+
+		g2.dispose();
 	}
 
-	private void drawBackground(Graphics g) {
+	private void drawBackground(Graphics g, Rectangle bounds) {
 		int spacing = 8;
 
-		int x = getX() - spacing;
-		int y = getY() - spacing;
-		int width = getWidth() + (spacing * 2);
-		int height = getHeight() + (spacing * 2);
+		int x = bounds.x - spacing;
+		int y = bounds.y - spacing;
+		int width = bounds.width + (spacing * 2);
+		int height = bounds.height + (spacing * 2);
 
 		g.fillRect(x, y, width, height);
 
@@ -176,9 +204,7 @@ public class DockingHandle extends JLabel {
 		g.drawRect(x, y, width, height);
 	}
 
-	private void drawRootOutline(Graphics g) {
-		Rectangle bounds = getBounds();
-
+	private void drawRootOutline(Graphics g, Rectangle bounds) {
 		boolean north = region == DockingRegion.NORTH;
 		boolean south = region == DockingRegion.SOUTH;
 		boolean east = region == DockingRegion.EAST;
@@ -198,9 +224,7 @@ public class DockingHandle extends JLabel {
 		}
 	}
 
-	private void fillMouseOverRegion(Graphics g) {
-		Rectangle bounds = getBounds();
-
+	private void fillMouseOverRegion(Graphics g, Rectangle bounds) {
 		boolean north = region == DockingRegion.NORTH;
 		boolean south = region == DockingRegion.SOUTH;
 		boolean east = region == DockingRegion.EAST;
@@ -220,9 +244,7 @@ public class DockingHandle extends JLabel {
 		}
 	}
 
-	private void drawDashedLine(Graphics2D g2) {
-		Rectangle bounds = getBounds();
-
+	private void drawDashedLine(Graphics2D g2, Rectangle bounds) {
 		boolean north = region == DockingRegion.NORTH;
 		boolean south = region == DockingRegion.SOUTH;
 
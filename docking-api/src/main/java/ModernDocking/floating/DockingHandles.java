@@ -33,7 +33,10 @@ import ModernDocking.ui.ToolbarLocation;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static ModernDocking.floating.DockingHandle.HANDLE_ICON_SIZE;
@@ -66,7 +69,7 @@ public class DockingHandles {
 	private ToolbarLocation pinRegion = null;
 
 	private final JFrame utilFrame;
-	private final RootDockingPanelAPI targetRoot;
+	private RootDockingPanelAPI targetRoot;
 
 	// the dockable that we're currently trying to dock and is floating in a TempFloatingFrame
 	private JPanel floating;
@@ -75,6 +78,21 @@ public class DockingHandles {
 
 	public boolean overTab = false;
 
+	// bounds of the drop targets in the window we're drawing over
+	private DropTargetTable dropTargets = null;
+
+	// area of the utility frame covered by the handles as of the last update, used to repaint only what changed
+	private Rectangle paintedBounds = new Rectangle();
+	private List<Rectangle> paintedLayout = null;
+	private final Map<DockingHandle, Boolean> paintedMouseOver = new HashMap<>();
+
+	// the handles drawn without any mouse over highlights. only the highlighted handles are painted on top of this
+	private BufferedImage backBuffer = null;
+	private Rectangle backBufferBounds = null;
+	private List<Rectangle> backBufferLayout = null;
+	private double backBufferScale = 0;
+	private int backBufferGeneration = -1;
+
 	/**
 	 * Create a new instance of the DockingHandles
 	 *
@@ -137,6 +155,11 @@ public class DockingHandles {
 	 */
 	public void setActive(boolean active) {
 		utilFrame.setVisible(active);
+
+		// the frame is painted in full when it's shown again
+		paintedBounds = new Rectangle();
+		paintedLayout = null;
+		paintedMouseOver.clear();
 	}
 
 	/**
@@ -148,6 +171,25 @@ public class DockingHandles {
 		floating = dockable;
 	}
 
+	/**
+	 * Set the root of the window we're drawing over
+	 *
+	 * @param root The root panel of the window
+	 */
+	void setTargetRoot(RootDockingPanelAPI root) {
+		targetRoot = root;
+		targetDockable = null;
+	}
+
+	/**
+	 * Set the drop targets of the window we're drawing over
+	 *
+	 * @param dropTargets Drop targets, null while inactive
+	 */
+	void setDropTargets(DropTargetTable dropTargets) {
+		this.dropTargets = dropTargets;
+	}
+
 	private void setupHandle(DockingHandle label) {
 		mouseOver.put(label, false);
 		utilFrame.add(label);
@@ -164,15 +206,14 @@ public class DockingHandles {
 		pinEast.setVisible(targetRoot != null && isPinningRegionAllowed(DockingRegion.EAST));
 		pinSouth.setVisible(targetRoot != null && isPinningRegionAllowed(DockingRegion.SOUTH));
 
-		if (targetRoot != null) {
-			Point location = targetRoot.getLocation();
-			Dimension size = targetRoot.getSize();
+		Rectangle rootBounds = targetRoot != null ? DropTargetTable.toWindow(dropTargets.getRootBounds(), utilFrame) : null;
+
+		if (rootBounds != null) {
+			Point location = rootBounds.getLocation();
+			Dimension size = rootBounds.getSize();
 			location.x += size.width / 2;
 			location.y += size.height / 2;
 
-			SwingUtilities.convertPointToScreen(location, targetRoot.getParent());
-			SwingUtilities.convertPointFromScreen(location, utilFrame);
-
 			setLocation(rootCenter, location.x, location.y);
 			setLocation(rootWest, location.x - (size.width / 2) + rootHandleSpacing(rootWest), location.y);
 			setLocation(rootNorth, location.x, location.y - (size.height / 2) + rootHandleSpacing(rootNorth));
@@ -277,35 +318,17 @@ public class DockingHandles {
 		dockableEast.setVisible(targetDockable != null && isRegionAllowed(DockingRegion.EAST));
 		dockableSouth.setVisible(targetDockable != null && isRegionAllowed(DockingRegion.SOUTH));
 
-		if (targetDockable != null && ((Component) targetDockable).getParent() != null) {
-			Point location = ((Component) targetDockable).getLocation();
-			Dimension size = ((Component) targetDockable).getSize();
+		Rectangle bounds = targetDockable != null ? DropTargetTable.toWindow(dropTargets.getHandleBounds(targetDockable), utilFrame) : null;
 
-			// if this dockable is wrapped in a JScrollPane we need to set the handle to the center of the JScrollPane
-			// not to the center of the dockable (which will more than likely be at a different location)
-			if (targetDockable.isWrappableInScrollpane()) {
-				Component parent = ((Component) targetDockable).getParent();
-
-				while (parent != null && !(parent instanceof JScrollPane)) {
-					parent = parent.getParent();
-				}
-
-				if (parent != null) {
-					JScrollPane display = (JScrollPane) parent;
-
-					location = display.getLocation();
-					size = display.getSize();
-				}
-			}
+		if (bounds != null) {
+			Point location = bounds.getLocation();
+			Dimension size = bounds.getSize();
 
 			location.x += size.width / 2;
 			location.y += size.height / 2;
 
 			location.y -= (int) (DockingHandle.HANDLE_ICON_SIZE * (1.75/2));
 
-			SwingUtilities.convertPointToScreen(location, ((Component) targetDockable).getParent());
-			SwingUtilities.convertPointFromScreen(location, utilFrame);
-
 			setLocation(dockableCenter, location.x, location.y);
 			setLocation(dockableWest, location.x - handleSpacing(dockableWest), location.y);
 			setLocation(dockableNorth, location.x, location.y - handleSpacing(dockableNorth));
@@ -359,29 +382,114 @@ public class DockingHandles {
 			}
 		}
 
-		utilFrame.revalidate();
-		utilFrame.repaint();
+		repaintChanges();
+	}
+
+	// repaint the area of the handles that moved, appeared, disappeared or changed their mouse over state
+	private void repaintChanges() {
+		List<Rectangle> layout = handleLayout();
+		Rectangle bounds = layerBounds();
+
+		Rectangle dirty = new Rectangle();
+
+		if (!layout.equals(paintedLayout) || !bounds.equals(paintedBounds)) {
+			dirty = DockingUtilsFrame.union(paintedBounds, bounds);
+		}
+		else if (!overTab) {
+			for (DockingHandle handle : mouseOver.keySet()) {
+				if (!mouseOver.get(handle).equals(paintedMouseOver.get(handle))) {
+					dirty = DockingUtilsFrame.union(dirty, handleArea(handle));
+				}
+			}
+		}
+
+		paintedLayout = layout;
+		paintedBounds = bounds;
+		paintedMouseOver.putAll(mouseOver);
+
+		if (!dirty.isEmpty()) {
+			utilFrame.repaint(dirty.x, dirty.y, dirty.width, dirty.height);
+		}
+	}
+
+	// the bounds of every handle, empty for hidden handles. the handles only need to be repainted when this changes
+	private List<Rectangle> handleLayout() {
+		List<Rectangle> layout = new ArrayList<>();
+
+		for (DockingHandle handle : paintOrder()) {
+			layout.add(handle.isVisible() ? handle.getBounds() : new Rectangle());
+		}
+		return layout;
+	}
+
+	private List<DockingHandle> paintOrder() {
+		List<DockingHandle> handles = new ArrayList<>();
+		handles.add(rootCenter);
+		handles.add(rootEast);
+		handles.add(rootWest);
+		handles.add(rootNorth);
+		handles.add(rootSouth);
+
+		handles.add(pinWest);
+		handles.add(pinEast);
+		handles.add(pinSouth);
+
+		handles.add(dockableCenter);
+		handles.add(dockableEast);
+		handles.add(dockableWest);
+		handles.add(dockableNorth);
+		handles.add(dockableSouth);
+		return handles;
+	}
+
+	// area painted for a single handle, including the background drawn around root and pin handles
+	private Rectangle handleArea(DockingHandle handle) {
+		Rectangle area = handle.getBounds();
+		area.grow(DockingHandle.SPRITE_PADDING, DockingHandle.SPRITE_PADDING);
+		return area;
+	}
+
+	// area of the utility frame that the handles paint into
+	private Rectangle layerBounds() {
+		Rectangle bounds = new Rectangle();
+
+		if (overTab) {
+			return bounds;
+		}
+
+		for (DockingHandle handle : paintOrder()) {
+			if (handle.isVisible()) {
+				bounds = DockingUtilsFrame.union(bounds, handleArea(handle));
+			}
+		}
+
+		if (targetDockable != null) {
+			Rectangle background = dockableBackground().getBounds();
+			background.grow(1, 1);
+
+			bounds = DockingUtilsFrame.union(bounds, background);
+		}
+		return bounds;
 	}
 
 	private void setLocation(Component component, int x, int y) {
 		component.setLocation(x - (HANDLE_ICON_SIZE / 2), y - (HANDLE_ICON_SIZE / 2));
 	}
 
-	/**
-	 * Paint the handles
-	 *
-	 * @param g Graphics instance to use
-	 */
-	public void paint(Graphics g) {
+	// create a polygon of the docking handles background
+	private Polygon dockableBackground() {
 		int centerX = dockableCenter.getX() + (dockableCenter.getWidth() / 2);
 		int centerY = dockableCenter.getY() + (dockableCenter.getWidth() / 2);
 
+		return dockableBackground(centerX, centerY);
+	}
+
+	private Polygon dockableBackground(int centerX, int centerY) {
 		int spacing = handleSpacing(dockableCenter) - dockableCenter.getWidth();
 		int half_icon = dockableCenter.getWidth() / 2;
 		int one_and_a_half_icons = (int) (dockableCenter.getWidth() * 1.5);
 
-		// create a polygon of the docking handles background
-		Polygon poly = new Polygon(
+		return new Polygon(
 				new int[] {
 						centerX - half_icon - spacing,
 						centerX + half_icon + spacing,
@@ -422,49 +530,140 @@ public class DockingHandles {
 				},
 				17
 		);
+	}
+
+	/**
+	 * Paint the handles
+	 *
+	 * @param g Graphics instance to use
+	 */
+	public void paint(Graphics g) {
+		Rectangle bounds = layerBounds();
+
+		if (bounds.isEmpty()) {
+			return;
+		}
+
+		HandleSpriteCache.validate();
+
+		// a highlighted root or pin handle under the dockable handles background has to be painted below it, skip the buffer
+		if (isMouseOverBelowDockableHandles()) {
+			paintLayer(g, true);
+			return;
+		}
+
+		double scale = ((Graphics2D) g).getTransform().getScaleX();
+
+		updateBackBuffer(bounds, scale);
+
+		g.drawImage(backBuffer, bounds.x, bounds.y, bounds.width, bounds.height, null);
+
+		// draw the highlighted handles over the buffered handles
+		for (DockingHandle handle : paintOrder()) {
+			if (handle.isVisible() && mouseOver.get(handle)) {
+				handle.paintHandle(g, true);
+			}
+		}
+	}
+
+	// paint the handles without highlights into the back buffer if they have changed since it was last painted
+	private void updateBackBuffer(Rectangle bounds, double scale) {
+		List<Rectangle> layout = handleLayout();
+		int generation = HandleSpriteCache.getGeneration();
+
+		if (backBuffer != null && scale == backBufferScale && bounds.equals(backBufferBounds) && layout.equals(backBufferLayout) && generation == backBufferGeneration) {
+			return;
+		}
+
+		// match the scale of the screen so that the buffer isn't blurry on HiDPI displays
+		int width = (int) Math.ceil(bounds.width * scale);
+		int height = (int) Math.ceil(bounds.height * scale);
 
-		Color background = DockingSettings.getHandleBackground();//DockingProperties.getHandlesBackground();
-		Color border = DockingSettings.getHandleForeground();//DockingProperties.getHandlesBackgroundBorder();
+		if (backBuffer == null || backBuffer.getWidth() != width || backBuffer.getHeight() != height) {
+			backBuffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		}
+
+		Graphics2D g = backBuffer.createGraphics();
+		g.setComposite(AlphaComposite.Clear);
+		g.fillRect(0, 0, width, height);
+		g.setComposite(AlphaComposite.SrcOver);
+
+		g.scale(scale, scale);
+		g.translate(-bounds.x, -bounds.y);
+
+		paintLayer(g, false);
 
-		Graphics2D g2 = (Graphics2D) g.create();
-		Stroke dashed = new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{3}, 0);
-		g2.setStroke(dashed);
+		g.dispose();
 
+		backBufferBounds = bounds;
+		backBufferLayout = layout;
+		backBufferScale = scale;
+		backBufferGeneration = generation;
+	}
+
+	private boolean isMouseOverBelowDockableHandles() {
+		if (targetDockable == null) {
+			return false;
+		}
+
+		Rectangle background = dockableBackground().getBounds();
+
+		for (DockingHandle handle : paintOrder()) {
+			if ((handle.isRoot() || handle.isPin()) && handle.isVisible() && mouseOver.get(handle) && handleArea(handle).intersects(background)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void paintLayer(Graphics g, boolean withMouseOver) {
 		// draw root handles
-		paintHandle(g, g2, rootCenter);
-		paintHandle(g, g2, rootEast);
-		paintHandle(g, g2, rootWest);
-		paintHandle(g, g2, rootNorth);
-		paintHandle(g, g2, rootSouth);
+		paintHandle(g, withMouseOver, rootCenter);
+		paintHandle(g, withMouseOver, rootEast);
+		paintHandle(g, withMouseOver, rootWest);
+		paintHandle(g, withMouseOver, rootNorth);
+		paintHandle(g, withMouseOver, rootSouth);
 
-		paintHandle(g, g2, pinWest);
-		paintHandle(g, g2, pinEast);
-		paintHandle(g, g2, pinSouth);
+		paintHandle(g, withMouseOver, pinWest);
+		paintHandle(g, withMouseOver, pinEast);
+		paintHandle(g, withMouseOver, pinSouth);
 
 		// draw the dockable handles background over the root handles in case they overlap
 		if (targetDockable != null) {
-			// fill the dockable handles background
-			g.setColor(background);
-			g.fillPolygon(poly.xpoints, poly.ypoints, poly.npoints);
+			int centerX = dockableCenter.getX() + (dockableCenter.getWidth() / 2);
+			int centerY = dockableCenter.getY() + (dockableCenter.getWidth() / 2);
+
+			// the sprite is drawn with the polygon centered on the origin, include the bottom and right edges of the border
+			Rectangle area = dockableBackground(0, 0).getBounds();
+			area.width++;
+			area.height++;
+
+			Image sprite = HandleSpriteCache.getSprite((Graphics2D) g, "dockable-background", area.width, area.height, spriteGraphics -> {
+				Polygon poly = dockableBackground(-area.x, -area.y);
 
-			// draw the dockable handles border
-			g.setColor(border);
-			g.drawPolygon(poly.xpoints, poly.ypoints, poly.npoints);
+				// fill the dockable handles background
+				spriteGraphics.setColor(DockingSettings.getHandleBackground());
+				spriteGraphics.fillPolygon(poly.xpoints, poly.ypoints, poly.npoints);
+
+				// draw the dockable handles border
+				spriteGraphics.setColor(DockingSettings.getHandleForeground());
+				spriteGraphics.drawPolygon(poly.xpoints, poly.ypoints, poly.npoints);
+			});
+
+			g.drawImage(sprite, centerX + area.x, centerY + area.y, area.width, area.height, null);
 		}
 
 		// draw the docking handles over the docking handles background
-		paintHandle(g, g2, dockableCenter);
-		paintHandle(g, g2, dockableEast);
-		paintHandle(g, g2, dockableWest);
-		paintHandle(g, g2, dockableNorth);
-		paintHandle(g, g2, dockableSouth);
-
-		g2.dispose();
+		paintHandle(g, withMouseOver, dockableCenter);
+		paintHandle(g, withMouseOver, dockableEast);
+		paintHandle(g, withMouseOver, dockableWest);
+		paintHandle(g, withMouseOver, dockableNorth);
+		paintHandle(g, withMouseOver, dockableSouth);
 	}
 
-	private void paintHandle(Graphics g, Graphics2D g2, DockingHandle handle) {
+	private void paintHandle(Graphics g, boolean withMouseOver, DockingHandle handle) {
 		if (handle.isVisible()) {
-			handle.paintHandle(g, g2, mouseOver.get(handle));
+			handle.paintHandle(g, withMouseOver && mouseOver.get(handle));
 		}
 	}
 }
@@ -27,7 +27,6 @@ import ModernDocking.DockingRegion;
 import ModernDocking.api.DockingAPI;
 import ModernDocking.api.RootDockingPanelAPI;
 import ModernDocking.internal.DisplayPanel;
-import ModernDocking.internal.DockingInternal;
 import ModernDocking.ui.DockingSettings;
 import ModernDocking.ui.ToolbarLocation;
 
@@ -41,8 +40,8 @@ public class DockingOverlay {
 	// determines how close to the edge the user has to drag the panel before they see an overlay other than CENTER
 	private static final double REGION_SENSITIVITY = 0.35;
 
-	// the target root for this overlay, always the same
-	private final RootDockingPanelAPI targetRoot;
+	// the target root for this overlay, changes when the utility frame is reused for another window
+	private RootDockingPanelAPI targetRoot;
 
 	// the dockable that is currently floating in its own undecoarted frame
 	private JPanel floating;
@@ -76,6 +75,12 @@ public class DockingOverlay {
 	public Rectangle targetTab;
 	public boolean beforeTab = true;
 
+	// area of the utility frame painted as of the last update, used to repaint only what changed
+	private Rectangle paintedBounds = new Rectangle();
+
+	// bounds of the drop targets in the window this overlay covers
+	private DropTargetTable dropTargets = null;
+
 	/**
 	 * Construct a new overlay for a utility frame and root panel
 	 *
@@ -103,6 +108,27 @@ public class DockingOverlay {
 		dockableRegion = null;
 		rootRegion = null;
 		size = new Dimension(0, 0);
+
+		// the frame is painted in full when it's shown again
+		paintedBounds = new Rectangle();
+	}
+
+	/**
+	 * Set the root of the window this overlay covers
+	 *
+	 * @param root The root of the window under the utility frame
+	 */
+	void setTargetRoot(RootDockingPanelAPI root) {
+		targetRoot = root;
+	}
+
+	/**
+	 * Set the drop targets of the window this overlay covers
+	 *
+	 * @param dropTargets Drop targets, null while inactive
+	 */
+	void setDropTargets(DropTargetTable dropTargets) {
+		this.dropTargets = dropTargets;
 	}
 
 	/**
@@ -144,11 +170,12 @@ public class DockingOverlay {
 		// the last region that we calculated. used for painting
 		DockingRegion lastSelectedRegion;
 
-		if (targetRoot != null && rootRegion != null) {
-			Point point = targetRoot.getLocation();
-			Dimension size = targetRoot.getSize();
+		Rectangle rootBounds = targetRoot != null ? DropTargetTable.toWindow(dropTargets.getRootBounds(), utilFrame) : null;
+		Rectangle dockableBounds = targetDockable != null ? DropTargetTable.toWindow(dropTargets.getDockableBounds(targetDockable), utilFrame) : null;
 
-			point = SwingUtilities.convertPoint(targetRoot.getParent(), point, utilFrame);
+		if (rootBounds != null && rootRegion != null) {
+			Point point = rootBounds.getLocation();
+			Dimension size = rootBounds.getSize();
 
 			lastSelectedRegion = rootRegion;
 
@@ -178,13 +205,9 @@ public class DockingOverlay {
 			this.location = point;
 			this.size = size;
 		}
-		else if (targetDockable != null && dockableRegion != null) {
-			JComponent component = DockingInternal.get(docking).getWrapper(targetDockable).getDisplayPanel();
-
-			Point point = component.getLocation();
-			Dimension size = component.getSize();
-
-			point = SwingUtilities.convertPoint(component.getParent(), point, utilFrame);
+		else if (dockableBounds != null && dockableRegion != null) {
+			Point point = dockableBounds.getLocation();
+			Dimension size = dockableBounds.getSize();
 
 			lastSelectedRegion = dockableRegion;
 
@@ -214,16 +237,11 @@ public class DockingOverlay {
 			this.location = point;
 			this.size = size;
 		}
-		else if (targetDockable != null) {
-			JComponent component = DockingInternal.get(docking).getWrapper(targetDockable).getDisplayPanel();
-
-			Point framePoint = new Point(screenPos);
-			SwingUtilities.convertPointFromScreen(framePoint, utilFrame);
+		else if (dockableBounds != null) {
+			Point framePoint = new Point(screenPos.x - utilFrame.getX(), screenPos.y - utilFrame.getY());
 
-			Point point = (component).getLocation();
-			Dimension size = component.getSize();
-
-			point = SwingUtilities.convertPoint(component.getParent(), point, utilFrame);
+			Point point = dockableBounds.getLocation();
+			Dimension size = dockableBounds.getSize();
 
 			double horizontalPct = (framePoint.x - point.x) / (double) size.width;
 			double verticalPct = (framePoint.y - point.y) / (double) size.height;
@@ -257,13 +275,9 @@ public class DockingOverlay {
 			this.location = point;
 			this.size = size;
 		}
-		else if (targetRoot != null) {
-			JComponent component = targetRoot;
-
-			Point point = (component).getLocation();
-			Dimension size = component.getSize();
-
-			point = SwingUtilities.convertPoint(component.getParent(), point, utilFrame);
+		else if (rootBounds != null) {
+			Point point = rootBounds.getLocation();
+			Dimension size = rootBounds.getSize();
 
 			lastSelectedRegion = DockingRegion.CENTER;
 
@@ -271,8 +285,29 @@ public class DockingOverlay {
 			this.size = size;
 		}
 
-		utilFrame.revalidate();
-		utilFrame.repaint();
+		// repaint the previous and new overlay areas, the rest of the frame hasn't changed
+		Rectangle bounds = paintedBounds();
+
+		if (!bounds.equals(paintedBounds)) {
+			Rectangle dirty = DockingUtilsFrame.union(paintedBounds, bounds);
+			paintedBounds = bounds;
+
+			utilFrame.repaint(dirty.x, dirty.y, dirty.width, dirty.height);
+		}
+	}
+
+	// the area that paint() will fill with the current state
+	private Rectangle paintedBounds() {
+		if (!visible || (!isDockingToRoot() && !isDockingToDockable()) || isDockingToPin()) {
+			return new Rectangle();
+		}
+
+		Rectangle bounds = new Rectangle(location, size);
+
+		if (overTab && targetTab != null) {
+			bounds = DockingUtilsFrame.union(bounds, targetTab);
+		}
+		return bounds;
 	}
 
 	/**
@@ -298,20 +333,17 @@ public class DockingOverlay {
 		}
 
 		// use the target dockable if we have one, otherwise use the root
-		JComponent component;
-		if (targetDockable != null) {
-			component = DockingInternal.get(docking).getWrapper(targetDockable).getDisplayPanel();
-		}
-		else {
-			component = targetRoot;
+		Rectangle bounds = targetDockable != null ? dropTargets.getDockableBounds(targetDockable) : dropTargets.getRootBounds();
+
+		if (bounds == null) {
+			return DockingRegion.CENTER;
 		}
 
-		// find the mouse position over the component
-		Point framePoint = new Point(screenPos);
-		SwingUtilities.convertPointFromScreen(framePoint, component.getParent());
+		// the mouse position and the bounds are both on screen
+		Point framePoint = screenPos;
 
-		Point point = (component).getLocation();
-		Dimension size = component.getSize();
+		Point point = bounds.getLocation();
+		Dimension size = bounds.getSize();
 
 		// calculate a percentage along the horizontal axis and vertical axis. we need to determine if we're in the center or one of the other 4 regions
 		double horizontalPct = (framePoint.x - point.x) / (double) size.width;
@@ -47,10 +47,16 @@ public class DockingUtilsFrame extends JFrame implements ComponentListener {
 	/**
 	 * The window from the application that this utility frame is directly over
 	 */
-	private final Window referenceDockingWindow;
+	private Window referenceDockingWindow;
 
 	private boolean overTab = false;
 
+	private DockingAPI docking;
+	private RootDockingPanelAPI root;
+
+	// drop targets of the reference window, built the first time they're needed while this frame is active
+	private DropTargetTable dropTargets = null;
+
 	/**
 	 * create a new DockingUtilsFrame with a frame and its root panel
 	 *
@@ -58,6 +64,9 @@ public class DockingUtilsFrame extends JFrame implements ComponentListener {
 	 * @param root The root of the tied window
 	 */
 	public DockingUtilsFrame(DockingAPI docking, Window referenceDockingWindow, RootDockingPanelAPI root) {
+		this.docking = docking;
+		this.root = root;
+
 		setLayout(null); // don't use a layout manager for this custom painted frame
 		setUndecorated(true); // don't want to see a frame border
 		setType(Type.UTILITY); // hide this frame from the task bar
@@ -86,6 +95,24 @@ public class DockingUtilsFrame extends JFrame implements ComponentListener {
 
 	}
 
+	/**
+	 * tie this utility frame to another window. the frame must have been disposed, it starts listening to the new window when it's displayed again
+	 *
+	 * @param docking The docking instance the window belongs to
+	 * @param referenceDockingWindow Window that this utility frame is tied to
+	 * @param root The root of the tied window
+	 */
+	void bind(DockingAPI docking, Window referenceDockingWindow, RootDockingPanelAPI root) {
+		this.docking = docking;
+		this.referenceDockingWindow = referenceDockingWindow;
+		this.root = root;
+
+		handles.setTargetRoot(root);
+		overlay.setTargetRoot(root);
+
+		setDropTargets(null);
+	}
+
 	@Override
 	public void addNotify() {
 		super.addNotify();
@@ -147,6 +174,8 @@ public class DockingUtilsFrame extends JFrame implements ComponentListener {
 	 * @param screenPos New mouse position
 	 */
 	public void update(Point screenPos) {
+		getDropTargets();
+
 		handles.update(screenPos);
 		overlay.update(screenPos);
 	}
@@ -159,6 +188,37 @@ public class DockingUtilsFrame extends JFrame implements ComponentListener {
 	public void setActive(boolean active) {
 		handles.setActive(active);
 		overlay.setActive(active);
+
+		// the window might change before it's active again
+		if (!active) {
+			setDropTargets(null);
+		}
+	}
+
+	/**
+	 * get the drop targets of the reference window, building them if this is the first time they're needed during this drag
+	 *
+	 * @return Drop targets of the reference window
+	 */
+	DropTargetTable getDropTargets() {
+		if (dropTargets == null) {
+			setDropTargets(new DropTargetTable(docking, referenceDockingWindow, root));
+		}
+		return dropTargets;
+	}
+
+	// the reference window moved or resized, rebuild the drop targets the next time they're needed
+	private void invalidateDropTargets() {
+		if (dropTargets != null) {
+			setDropTargets(null);
+		}
+	}
+
+	private void setDropTargets(DropTargetTable dropTargets) {
+		this.dropTargets = dropTargets;
+
+		handles.setDropTargets(dropTargets);
+		overlay.setDropTargets(dropTargets);
 	}
 
 	/**
@@ -168,6 +228,8 @@ public class DockingUtilsFrame extends JFrame implements ComponentListener {
 	 * @return The root or dockable region at the screen position
 	 */
 	public DockingRegion getRegion(Point screenPos) {
+		getDropTargets();
+
 		return overlay.getRegion(screenPos);
 	}
 
@@ -198,11 +260,13 @@ public class DockingUtilsFrame extends JFrame implements ComponentListener {
 
 	@Override
 	public void componentResized(ComponentEvent e) {
+		invalidateDropTargets();
 		SwingUtilities.invokeLater(this::setSizeAndLocation);
 	}
 
 	@Override
 	public void componentMoved(ComponentEvent e) {
+		invalidateDropTargets();
 		SwingUtilities.invokeLater(this::setSizeAndLocation);
 	}
 
@@ -227,6 +291,23 @@ public class DockingUtilsFrame extends JFrame implements ComponentListener {
 		overlay.paint(g);
 	}
 
+	/**
+	 * union of two areas of the frame, ignoring empty areas
+	 *
+	 * @param a First area
+	 * @param b Second area
+	 * @return Area covering both
+	 */
+	static Rectangle union(Rectangle a, Rectangle b) {
+		if (a.isEmpty()) {
+			return new Rectangle(b);
+		}
+		if (b.isEmpty()) {
+			return new Rectangle(a);
+		}
+		return a.union(b);
+	}
+
 	private void setSizeAndLocation() {
 		int padding = (int) (DockingHandle.HANDLE_ICON_SIZE * 1.75);
 
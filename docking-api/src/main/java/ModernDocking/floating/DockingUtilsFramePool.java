@@ -0,0 +1,163 @@
+/*
+Copyright (c) 2024 Andrew Auclair
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package ModernDocking.floating;
+
+import ModernDocking.api.DockingAPI;
+import ModernDocking.api.RootDockingPanelAPI;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out DockingUtilsFrames for docking windows. Frames are only created the first time a dockable is dragged over
+ * a window and are released once no drag has happened for a while. Released frames are kept in a small pool and reused
+ * for any window.
+ */
+class DockingUtilsFramePool {
+	// how long frames stay tied to their windows after a drag ends
+	private static final int IDLE_TIMEOUT_MS = 30_000;
+	// the most released frames to keep for reuse
+	private static final int MAX_POOLED_FRAMES = 2;
+
+	private static class Registration {
+		private final DockingAPI docking;
+		private final RootDockingPanelAPI root;
+
+		private Registration(DockingAPI docking, RootDockingPanelAPI root) {
+			this.docking = docking;
+			this.root = root;
+		}
+	}
+
+	private static final Map<Window, Registration> registrations = new HashMap<>();
+
+	// frames currently tied to a window
+	private static final Map<Window, DockingUtilsFrame> boundFrames = new HashMap<>();
+
+	// released frames, disposed and ready to be tied to another window
+	private static final Deque<DockingUtilsFrame> pooledFrames = new ArrayDeque<>();
+
+	private static final Timer releaseTimer = new Timer(IDLE_TIMEOUT_MS, e -> releaseFrames());
+
+	static {
+		releaseTimer.setRepeats(false);
+	}
+
+	private DockingUtilsFramePool() {
+	}
+
+	/**
+	 * Register a docking window that dockables can be dragged over
+	 *
+	 * @param docking The docking instance the window belongs to
+	 * @param window The docking window
+	 * @param root The root of the docking window
+	 */
+	static void register(DockingAPI docking, Window window, RootDockingPanelAPI root) {
+		registrations.put(window, new Registration(docking, root));
+
+		// a frame tied to the old root of this window has to be tied to the new root
+		release(boundFrames.remove(window));
+	}
+
+	/**
+	 * Deregister a docking window, releasing its frame if it has one
+	 *
+	 * @param window The docking window
+	 */
+	static void deregister(Window window) {
+		registrations.remove(window);
+
+		release(boundFrames.remove(window));
+	}
+
+	/**
+	 * Get the frame for a docking window, creating it or taking one from the pool if the window doesn't have one yet
+	 *
+	 * @param window The docking window
+	 * @return The frame for the window, null if the window isn't registered
+	 */
+	static DockingUtilsFrame acquire(Window window) {
+		DockingUtilsFrame frame = boundFrames.get(window);
+
+		if (frame != null) {
+			return frame;
+		}
+
+		Registration registration = registrations.get(window);
+
+		if (registration == null) {
+			return null;
+		}
+
+		frame = pooledFrames.poll();
+
+		if (frame == null) {
+			frame = new DockingUtilsFrame(registration.docking, window, registration.root);
+		}
+		else {
+			frame.bind(registration.docking, window, registration.root);
+		}
+
+		boundFrames.put(window, frame);
+
+		return frame;
+	}
+
+	/**
+	 * Start the idle timeout after a drag ends. The frames are released if no other drag ends before it runs out.
+	 */
+	static void dragEnded() {
+		releaseTimer.restart();
+	}
+
+	private static void releaseFrames() {
+		// still dragging, wait for the drag to end
+		if (FloatListener.isFloating()) {
+			releaseTimer.restart();
+			return;
+		}
+
+		for (DockingUtilsFrame frame : boundFrames.values()) {
+			release(frame);
+		}
+		boundFrames.clear();
+	}
+
+	// dispose of the frame to release its native resources and keep it for reuse if the pool isn't full
+	private static void release(DockingUtilsFrame frame) {
+		if (frame == null) {
+			return;
+		}
+
+		frame.setActive(false);
+		frame.dispose();
+
+		if (pooledFrames.size() < MAX_POOLED_FRAMES) {
+			pooledFrames.push(frame);
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/*
+Copyright (c) 2024 Andrew Auclair
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package ModernDocking.floating;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces drag motion events so that only the latest pointer position is processed, once per display frame.
+ * A mouse reporting at 1000 Hz would otherwise run a full frame and overlay update for every event.
+ */
+public class DragMotionPacer {
+	private static final int DEFAULT_REFRESH_RATE = 60;
+
+	// stats of the most recent drag
+	private static volatile int receivedEvents = 0;
+	private static volatile int processedEvents = 0;
+	private static volatile double effectiveUpdateRate = 0;
+
+	private final Consumer<Point> handler;
+	private final Timer timer;
+
+	private Point pendingPosition = null;
+	private long startTime = 0;
+
+	/**
+	 * Create a new pacer that passes the latest pointer position to the handler on each tick
+	 *
+	 * @param handler Handler to call with the latest pointer position, on the EDT
+	 */
+	DragMotionPacer(Consumer<Point> handler) {
+		this.handler = handler;
+
+		timer = new Timer(1000 / DEFAULT_REFRESH_RATE, e -> tick());
+		timer.setCoalesce(true);
+	}
+
+	/**
+	 * Start pacing motion events for a new drag
+	 *
+	 * @param window The window the drag started in, used to find the refresh rate of its display
+	 */
+	void start(Window window) {
+		pendingPosition = null;
+		receivedEvents = 0;
+		processedEvents = 0;
+		effectiveUpdateRate = 0;
+		startTime = System.nanoTime();
+
+		timer.setDelay(Math.max(1, 1000 / refreshRate(window)));
+		timer.start();
+	}
+
+	/**
+	 * Record the latest pointer position. Any position that has not been processed yet is dropped.
+	 *
+	 * @param mousePosOnScreen Pointer position on screen
+	 */
+	void post(Point mousePosOnScreen) {
+		receivedEvents++;
+		pendingPosition = mousePosOnScreen;
+	}
+
+	/**
+	 * Stop the tick, processing the last pointer position if it hasn't been processed yet
+	 */
+	void stop() {
+		if (!timer.isRunning()) {
+			return;
+		}
+		timer.stop();
+		tick();
+
+		double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+		effectiveUpdateRate = seconds > 0 ? processedEvents / seconds : 0;
+	}
+
+	private void tick() {
+		if (pendingPosition == null) {
+			return;
+		}
+		Point position = pendingPosition;
+		pendingPosition = null;
+
+		processedEvents++;
+		handler.accept(position);
+
+		// push the frame and overlay updates to the display now so that they line up with the next tick
+		Toolkit.getDefaultToolkit().sync();
+	}
+
+	private static int refreshRate(Window window) {
+		if (GraphicsEnvironment.isHeadless()) {
+			return DEFAULT_REFRESH_RATE;
+		}
+
+		GraphicsConfiguration configuration = window != null ? window.getGraphicsConfiguration() : null;
+		GraphicsDevice device = configuration != null ? configuration.getDevice() : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
+
+		int refreshRate = device.getDisplayMode().getRefreshRate();
+
+		return refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN ? DEFAULT_REFRESH_RATE : refreshRate;
+	}
+
+	/**
+	 * Get the number of drag motion events received during the most recent drag
+	 *
+	 * @return Number of received events
+	 */
+	public static int getReceivedEventCount() {
+		return receivedEvents;
+	}
+
+	/**
+	 * Get the number of drag motion events that were replaced by a newer position before being processed during the most recent drag
+	 *
+	 * @return Number of dropped events
+	 */
+	public static int getDroppedEventCount() {
+		return receivedEvents - processedEvents;
+	}
+
+	/**
+	 * Get the number of positions processed per second during the most recent drag
+	 *
+	 * @return Effective update rate in Hz, 0 if no drag has finished yet
+	 */
+	public static double getEffectiveUpdateRate() {
+		return effectiveUpdateRate;
+	}
+}
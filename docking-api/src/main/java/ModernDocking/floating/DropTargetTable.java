@@ -0,0 +1,261 @@
+/*
+Copyright (c) 2024 Andrew Auclair
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package ModernDocking.floating;
+
+import ModernDocking.Dockable;
+import ModernDocking.api.DockingAPI;
+import ModernDocking.api.RootDockingPanelAPI;
+import ModernDocking.internal.CustomTabbedPane;
+import ModernDocking.internal.DisplayPanel;
+import ModernDocking.internal.DockableWrapper;
+import ModernDocking.internal.DockingInternal;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Screen bounds of everything in a window that a dragged dockable can be dropped on. Built once when a drag
+ * starts over the window so that mouse moves are lookups instead of walking the live components.
+ */
+class DropTargetTable {
+	private final DockingAPI docking;
+	private final Window window;
+
+	// screen bounds of the root, null if the root isn't showing
+	private final Rectangle rootBounds;
+
+	// screen bounds of the display panel of each dockable, null for dockables that aren't showing in this window
+	private final Map<Dockable, Rectangle> dockableBounds = new HashMap<>();
+	// screen bounds of the area the dockable handles are centered on, the scroll pane if the dockable is wrapped in one
+	private final Map<Dockable, Rectangle> handleBounds = new HashMap<>();
+	// screen bounds of each tabbed pane and its tabs
+	private final Map<CustomTabbedPane, TabSlots> tabSlots = new HashMap<>();
+
+	private static class TabSlots {
+		private final Rectangle paneBounds;
+		private final Rectangle[] tabs;
+
+		private TabSlots(CustomTabbedPane tabbedPane) {
+			paneBounds = screenBounds(tabbedPane);
+			tabs = new Rectangle[tabbedPane.getTabCount()];
+
+			for (int i = 0; i < tabs.length; i++) {
+				Rectangle tab = tabbedPane.getBoundsAt(i);
+
+				tabs[i] = tab == null ? new Rectangle() : new Rectangle(paneBounds.x + tab.x, paneBounds.y + tab.y, tab.width, tab.height);
+			}
+		}
+	}
+
+	/**
+	 * Build the table for a window
+	 *
+	 * @param docking Docking instance
+	 * @param window The window to build the table for
+	 * @param root The root of the window
+	 */
+	DropTargetTable(DockingAPI docking, Window window, RootDockingPanelAPI root) {
+		this.docking = docking;
+		this.window = window;
+
+		// lay out any changes from starting the drag first, the bounds are never updated after this
+		window.validate();
+
+		rootBounds = root != null && root.isShowing() ? screenBounds(root) : null;
+
+		for (Dockable dockable : DockingInternal.get(docking).getDockables()) {
+			if (DockingInternal.get(docking).getWrapper(dockable).getWindow() == window) {
+				addDockable(dockable);
+			}
+		}
+
+		if (root != null) {
+			addTabbedPanes(root);
+		}
+	}
+
+	private void addDockable(Dockable dockable) {
+		DockableWrapper wrapper = DockingInternal.get(docking).getWrapper(dockable);
+		DisplayPanel displayPanel = wrapper.getDisplayPanel();
+
+		if (!displayPanel.isShowing() || SwingUtilities.getWindowAncestor(displayPanel) != window) {
+			// remember the miss so that lookups during the drag don't check this dockable again
+			dockableBounds.put(dockable, null);
+			return;
+		}
+
+		dockableBounds.put(dockable, screenBounds(displayPanel));
+
+		Component handleComponent = (Component) dockable;
+
+		// if this dockable is wrapped in a JScrollPane the handles are centered on the JScrollPane
+		if (dockable.isWrappableInScrollpane()) {
+			Component parent = ((Component) dockable).getParent();
+
+			while (parent != null && !(parent instanceof JScrollPane)) {
+				parent = parent.getParent();
+			}
+
+			if (parent != null) {
+				handleComponent = parent;
+			}
+		}
+
+		if (handleComponent.isShowing()) {
+			handleBounds.put(dockable, screenBounds(handleComponent));
+		}
+	}
+
+	// find the tabbed panes of the docking panels. the contents of the dockables are skipped
+	private void addTabbedPanes(Container container) {
+		for (Component child : container.getComponents()) {
+			if (!child.isShowing() || child instanceof DisplayPanel) {
+				continue;
+			}
+
+			if (child instanceof CustomTabbedPane) {
+				tabSlots.put((CustomTabbedPane) child, new TabSlots((CustomTabbedPane) child));
+			}
+
+			if (child instanceof Container) {
+				addTabbedPanes((Container) child);
+			}
+		}
+	}
+
+	private static Rectangle screenBounds(Component component) {
+		Point location = component.getLocationOnScreen();
+
+		return new Rectangle(location.x, location.y, component.getWidth(), component.getHeight());
+	}
+
+	/**
+	 * Convert screen bounds to the coordinates of a top level window
+	 *
+	 * @param screenBounds Bounds on screen, can be null
+	 * @param window Top level window
+	 * @return Bounds relative to the window, null if the screen bounds are null
+	 */
+	static Rectangle toWindow(Rectangle screenBounds, Window window) {
+		if (screenBounds == null) {
+			return null;
+		}
+		return new Rectangle(screenBounds.x - window.getX(), screenBounds.y - window.getY(), screenBounds.width, screenBounds.height);
+	}
+
+	/**
+	 * Get the screen bounds of the root
+	 *
+	 * @return Root bounds, null if the root isn't showing
+	 */
+	Rectangle getRootBounds() {
+		return rootBounds == null ? null : new Rectangle(rootBounds);
+	}
+
+	/**
+	 * Get the screen bounds of the display panel of a dockable
+	 *
+	 * @param dockable Dockable to look up
+	 * @return Display panel bounds, null if the dockable isn't showing in this window
+	 */
+	Rectangle getDockableBounds(Dockable dockable) {
+		if (!dockableBounds.containsKey(dockable)) {
+			addDockable(dockable);
+		}
+		Rectangle bounds = dockableBounds.get(dockable);
+
+		return bounds == null ? null : new Rectangle(bounds);
+	}
+
+	/**
+	 * Get the screen bounds that the dockable handles are centered on for a dockable
+	 *
+	 * @param dockable Dockable to look up
+	 * @return Handle area bounds, null if the dockable isn't showing in this window
+	 */
+	Rectangle getHandleBounds(Dockable dockable) {
+		if (!dockableBounds.containsKey(dockable)) {
+			addDockable(dockable);
+		}
+		Rectangle bounds = handleBounds.get(dockable);
+
+		return bounds == null ? null : new Rectangle(bounds);
+	}
+
+	private TabSlots slots(CustomTabbedPane tabbedPane) {
+		TabSlots slots = tabSlots.get(tabbedPane);
+
+		if (slots == null && tabbedPane.isShowing()) {
+			slots = new TabSlots(tabbedPane);
+			tabSlots.put(tabbedPane, slots);
+		}
+		return slots;
+	}
+
+	/**
+	 * Find the tab at a screen position, only checking the position along the tabs
+	 *
+	 * @param tabbedPane Tabbed pane to check
+	 * @param screenPos Position on screen
+	 * @return Index of the tab, -1 if there is no tab at the position
+	 */
+	int getTabIndex(CustomTabbedPane tabbedPane, Point screenPos) {
+		TabSlots slots = slots(tabbedPane);
+
+		if (slots == null) {
+			return -1;
+		}
+
+		// the tabbed pane keeps its own sorted tab bounds, all we need is the position relative to it
+		return tabbedPane.getTabIndexAt(screenPos.x - slots.paneBounds.x, screenPos.y - slots.paneBounds.y, true);
+	}
+
+	/**
+	 * Get the screen bounds of a tab
+	 *
+	 * @param tabbedPane Tabbed pane the tab is in
+	 * @param index Index of the tab
+	 * @return Tab bounds, empty if the tabbed pane isn't showing
+	 */
+	Rectangle getTabBounds(CustomTabbedPane tabbedPane, int index) {
+		TabSlots slots = slots(tabbedPane);
+
+		if (slots == null || index < 0 || index >= slots.tabs.length) {
+			return new Rectangle();
+		}
+		return new Rectangle(slots.tabs[index]);
+	}
+
+	/**
+	 * Get the screen bounds of a tabbed pane
+	 *
+	 * @param tabbedPane Tabbed pane to look up
+	 * @return Tabbed pane bounds, empty if the tabbed pane isn't showing
+	 */
+	Rectangle getTabbedPaneBounds(CustomTabbedPane tabbedPane) {
+		TabSlots slots = slots(tabbedPane);
+
+		return slots == null ? new Rectangle() : new Rectangle(slots.paneBounds);
+	}
+}
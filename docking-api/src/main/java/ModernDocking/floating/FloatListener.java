@@ -64,20 +64,32 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 	private Point dragOffset = new Point(0, 0);
 	private TempFloatingFrame floatingFrame;
 
-	private static final Map<Window, DockingUtilsFrame> utilFrames = new HashMap<>();
-
 	private DockingUtilsFrame activeUtilsFrame = null;
 
 	private static Window windowToDispose = null;
 
-	private Window currentTopWindow = null;
 	private Window currentTargetWindow = null;
 	private Window originalWindow;
 
 	private WindowLayout windowLayout;
 
+	// the dragged dockables stay docked and hidden until the drop, see Settings.setDeferredDragUndockEnabled
+	private boolean deferredUndock = false;
+	private Window hiddenWindow = null;
+	// the tab group the source was the selected tab of, another tab is selected while the source is hidden
+	private DockedTabbedPanel sourceTabs = null;
+
+	// the target resolved by the last position update, reused when dropping
+	private Point lastPosition = null;
+	private DockingHitTestIndex.Hit lastHit = null;
+	private Window lastHitWindow = null;
+	private int lastTargetTabIndex = -1;
+
 	private ModalityType modalityType = ModalityType.MODELESS;
 
+	// processes only the latest drag position, once per display frame
+	private final DragMotionPacer motionPacer = new DragMotionPacer(this::updateFramePosition);
+
 	public FloatListener(DockingAPI docking, DisplayPanel panel) {
 		this(docking, panel, (JComponent) panel.getWrapper().getHeaderUI());
 	}
@@ -124,7 +136,10 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 							DockingHeaderUI headerUI = tabs.getDockables().get(tabs.getSelectedTabIndex()).getHeaderUI();
 							JPanel panel = (JPanel) headerUI;
 
-							if (panel.contains(mousePos)) {
+							Point headerPos = new Point(mousePos);
+							SwingUtilities.convertPointFromScreen(headerPos, panel);
+
+							if (panel.contains(headerPos)) {
 								floatingPanel = tabs.getDockables().get(tabs.getSelectedTabIndex()).getDisplayPanel();
 							}
 							else {
@@ -145,19 +160,8 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 
 					((JDialog) originalWindow).setModalityType(ModalityType.MODELESS);
 
-					// Set all of these as invokeLater to force the order they happen in
-					SwingUtilities.invokeLater(() -> {
-						// check that the floating frame still exists since we invoked later and time might have passed
-						if (floatingFrame != null) {
-							floatingFrame.toFront();
-						}
-					});
-					SwingUtilities.invokeLater(() -> {
-						// check that the utils frame still exists since we invoked later and time might have passed
-						if (activeUtilsFrame != null) {
-							activeUtilsFrame.toFront();
-						}
-					});
+					// the dialog is no longer modal, raise the floating and utils frames above it
+					reorderWindows();
 				}
 			});
 		}
@@ -168,11 +172,11 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 	}
 
 	public static void registerDockingWindow(DockingAPI docking, Window window, RootDockingPanelAPI root) {
-		utilFrames.put(window, new DockingUtilsFrame(docking, window, root));
+		DockingUtilsFramePool.register(docking, window, root);
 	}
 
 	public static void deregisterDockingWindow(Window window) {
-		utilFrames.remove(window);
+		DockingUtilsFramePool.deregister(window);
 	}
 
 	private void updateFramePosition(Point mousePosOnScreen) {
@@ -180,25 +184,26 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 		Point framePos = new Point(mousePosOnScreen.x - dragOffset.x, mousePosOnScreen.y - dragOffset.y);
 		floatingFrame.setLocation(framePos);
 
-		// find the frame at our current position
+		// find the topmost frame at our current position. the registry knows about the frames we've brought to the front
 		Window frame = DockingComponentUtils.findRootAtScreenPos(docking, mousePosOnScreen);
 
-		// findRootAtScreenPos has a tendency to find the last added frame at the position. meaning it ignores Z order. override it here because we know better.
-		if (currentTopWindow != null && currentTopWindow.getBounds().contains(mousePosOnScreen)) {
-			frame = currentTopWindow;
-		}
-
 		boolean isModal = modalityType == ModalityType.TOOLKIT_MODAL || modalityType == ModalityType.APPLICATION_MODAL;
 
 		// change overlays and bring frames to front if we move over a new frame
 		if (frame != currentTargetWindow && !isModal) {
 			currentTargetWindow = frame;
-			currentTopWindow = frame;
 
 			changeFrameOverlays(frame);
 		}
 
-		Dockable dockable = DockingComponentUtils.findDockableAtScreenPos(mousePosOnScreen, currentTopWindow);
+		DockingHitTestIndex.Hit hit = DockingComponentUtils.hitTest(mousePosOnScreen, currentTargetWindow);
+
+		lastPosition = new Point(mousePosOnScreen);
+		lastHit = hit;
+		lastHitWindow = currentTargetWindow;
+		lastTargetTabIndex = -1;
+
+		Dockable dockable = hit.getDockable();
 
 		if (activeUtilsFrame != null) {
 			activeUtilsFrame.setFloating(floatingPanel);
@@ -206,47 +211,37 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 			activeUtilsFrame.update(mousePosOnScreen);
 		}
 
-		CustomTabbedPane tabbedPane = DockingComponentUtils.findTabbedPaneAtPos(mousePosOnScreen, currentTopWindow);
+		CustomTabbedPane tabbedPane = hit.getTabbedPane();
 
 		if (activeUtilsFrame != null) {
 			boolean overTab = dockable == null && tabbedPane != null && floatingPanel instanceof DisplayPanel;
 
 			if (overTab) {
-				int targetTabIndex = tabbedPane.getTargetTabIndex(mousePosOnScreen, true);
+				DropTargetTable dropTargets = activeUtilsFrame.getDropTargets();
+
+				int targetTabIndex = dropTargets.getTabIndex(tabbedPane, mousePosOnScreen);
+
+				lastTargetTabIndex = targetTabIndex;
 
 				Rectangle boundsAt;
 				boolean last = false;
 
 				if (targetTabIndex != -1) {
-					boundsAt = tabbedPane.getBoundsAt(targetTabIndex);
-
-					Point p = new Point(boundsAt.x, boundsAt.y);
-					SwingUtilities.convertPointToScreen(p, tabbedPane);
-					SwingUtilities.convertPointFromScreen(p, activeUtilsFrame);
-					boundsAt.x = p.x;
-					boundsAt.y = p.y;
+					boundsAt = DropTargetTable.toWindow(dropTargets.getTabBounds(tabbedPane, targetTabIndex), activeUtilsFrame);
 
 					boundsAt.width /=2;
 				}
 				else {
-					boundsAt = tabbedPane.getBoundsAt(tabbedPane.getTabCount() - 1);
-
-					Point tabPoint = new Point(tabbedPane.getX(), tabbedPane.getY());
-					SwingUtilities.convertPointToScreen(tabPoint, tabbedPane.getParent());
+					Rectangle tabbedPaneBounds = dropTargets.getTabbedPaneBounds(tabbedPane);
+					Rectangle lastTab = dropTargets.getTabBounds(tabbedPane, tabbedPane.getTabCount() - 1);
 
-					Point boundsPoint = new Point(boundsAt.x, boundsAt.y);
-					SwingUtilities.convertPointToScreen(boundsPoint, tabbedPane);
+					boundsAt = DropTargetTable.toWindow(lastTab, activeUtilsFrame);
 
-					int widthToAdd = boundsAt.width;
-
-					if (boundsPoint.x + (boundsAt.width * 2) >= tabPoint.x + tabbedPane.getWidth()) {
-						boundsAt.width = Math.abs((tabPoint.x + tabbedPane.getWidth()) - (boundsPoint.x + boundsAt.width));
+					if (lastTab.x + (lastTab.width * 2) >= tabbedPaneBounds.x + tabbedPaneBounds.width) {
+						boundsAt.width = Math.abs((tabbedPaneBounds.x + tabbedPaneBounds.width) - (lastTab.x + lastTab.width));
 					}
 
-					SwingUtilities.convertPointFromScreen(boundsPoint, activeUtilsFrame);
-
-					boundsAt.x = boundsPoint.x + widthToAdd;
-					boundsAt.y = boundsPoint.y;
+					boundsAt.x += lastTab.width;
 
 					last = true;
 				}
@@ -283,9 +278,9 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 		}
 
 		if (newWindow != null) {
-			activeUtilsFrame = utilFrames.get(newWindow);
+			activeUtilsFrame = DockingUtilsFramePool.acquire(newWindow);
 
-			if (currentTopWindow != null && floatingFrame != null && activeUtilsFrame != null) {
+			if (currentTargetWindow != null && floatingFrame != null && activeUtilsFrame != null) {
 				Point mousePos = MouseInfo.getPointerInfo().getLocation();
 
 				activeUtilsFrame.setFloating(floatingPanel);
@@ -298,21 +293,23 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 	}
 
 	private void reorderWindows() {
-		// Set all of these as invokeLater to force the order they happen in
+		DockingWindowRegistry registry = DockingInternal.get(docking).getWindowRegistry();
+
+		// only raise the target window if another docking window is above it
+		Window windowToRaise = currentTargetWindow != null && !registry.isTopmost(currentTargetWindow) ? currentTargetWindow : null;
+
+		if (windowToRaise != null) {
+			registry.moveToFront(windowToRaise);
+		}
+
+		// a single invokeLater keeps the order of the requests. check that the frames still exist since time might have passed
 		SwingUtilities.invokeLater(() -> {
-			// check that the current top frame still exists since we invoked later and time might have passed
-			if (currentTopWindow != null) {
-				currentTopWindow.toFront();
+			if (windowToRaise != null && windowToRaise == currentTargetWindow) {
+				windowToRaise.toFront();
 			}
-		});
-		SwingUtilities.invokeLater(() -> {
-			// check that the floating frame still exists since we invoked later and time might have passed
-			if (floatingFrame != null) {
+			if (floatingFrame != null && floatingFrame.isVisible()) {
 				floatingFrame.toFront();
 			}
-		});
-		SwingUtilities.invokeLater(() -> {
-			// check that the utils frame still exists since we invoked later and time might have passed
 			if (activeUtilsFrame != null) {
 				activeUtilsFrame.toFront();
 			}
@@ -341,7 +338,12 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 		else {
 			originalWindow = ((DockedTabbedPanel) source).getDockables().get(0).getWindow();
 		}
-		windowLayout = docking.getDockingState().getWindowLayout(originalWindow);
+		deferredUndock = Settings.isDeferredDragUndockEnabled();
+
+		// the layout is only needed to put the source back after an illegal drop
+		if (!deferredUndock) {
+			windowLayout = docking.getDockingState().getWindowLayout(originalWindow);
+		}
 
 		RootDockingPanelAPI currentRoot = DockingComponentUtils.rootForWindow(docking, originalWindow);
 
@@ -353,7 +355,9 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 				floatingFrame = new TempFloatingFrame(((DisplayPanel) floatingPanel).getWrapper(), source, floatingPanel.getSize());
 			}
 
-			docking.undock(((DisplayPanel) floatingPanel).getWrapper().getDockable());
+			if (!deferredUndock) {
+				docking.undock(((DisplayPanel) floatingPanel).getWrapper().getDockable());
+			}
 		}
 		else {
 			DockedTabbedPanel tabs = (DockedTabbedPanel) floatingPanel;
@@ -362,22 +366,36 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 
 			floatingFrame = new TempFloatingFrame(wrappers, tabs.getSelectedTabIndex(), source, floatingPanel.getSize());
 
-			for (DockableWrapper wrapper : wrappers) {
-				docking.undock(wrapper.getDockable());
+			if (!deferredUndock) {
+				for (DockableWrapper wrapper : wrappers) {
+					docking.undock(wrapper.getDockable());
+				}
 			}
 		}
 
-		DockingComponentUtils.removeIllegalFloats(docking, originalWindow);
+		if (deferredUndock) {
+			floatingPanel.setVisible(false);
 
-		if (originalWindow != null && currentRoot != null && currentRoot.getPanel() == null && docking.canDisposeWindow(originalWindow)) {
-			windowToDispose = originalWindow;
-			windowToDispose.setVisible(false);
+			selectNeighbourTab();
+
+			// hide the window if nothing else would be left in it
+			if (originalWindow != null && docking.canDisposeWindow(originalWindow) && isDraggingWholeWindow()) {
+				hiddenWindow = originalWindow;
+				hiddenWindow.setVisible(false);
+			}
+		}
+		else {
+			DockingComponentUtils.removeIllegalFloats(docking, originalWindow);
+
+			if (originalWindow != null && currentRoot != null && currentRoot.getPanel() == null && docking.canDisposeWindow(originalWindow)) {
+				windowToDispose = originalWindow;
+				windowToDispose.setVisible(false);
+			}
 		}
 
-		if (originalWindow != windowToDispose) {
-			currentTopWindow = originalWindow;
+		if (originalWindow != windowToDispose && originalWindow != hiddenWindow) {
 			currentTargetWindow = originalWindow;
-			activeUtilsFrame = utilFrames.get(originalWindow);
+			activeUtilsFrame = DockingUtilsFramePool.acquire(originalWindow);
 		}
 
 		if (activeUtilsFrame != null) {
@@ -388,19 +406,130 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 		}
 
 		docking.getAppState().setPaused(true);
+
+		motionPacer.start(originalWindow);
+	}
+
+	// select another tab in the tab group of the hidden source so that the group doesn't show an empty content area
+	private void selectNeighbourTab() {
+		if (!(floatingPanel instanceof DisplayPanel)) {
+			return;
+		}
+		DockableWrapper wrapper = ((DisplayPanel) floatingPanel).getWrapper();
+
+		if (!(wrapper.getParent() instanceof DockedTabbedPanel)) {
+			return;
+		}
+		DockedTabbedPanel tabs = (DockedTabbedPanel) wrapper.getParent();
+		List<DockableWrapper> dockables = tabs.getDockables();
+		int index = dockables.indexOf(wrapper);
+
+		if (dockables.size() < 2 || index != tabs.getSelectedTabIndex()) {
+			return;
+		}
+		sourceTabs = tabs;
+		sourceTabs.bringToFront(dockables.get(index + 1 < dockables.size() ? index + 1 : index - 1).getDockable());
+	}
+
+	// check if the dockables being dragged are the only dockables in the original window
+	private boolean isDraggingWholeWindow() {
+		List<DockableWrapper> dragged = floatingPanel instanceof DisplayPanel ? Collections.singletonList(((DisplayPanel) floatingPanel).getWrapper()) : floatingFrame.getDockables();
+
+		for (Dockable dockable : DockingInternal.get(docking).getDockables()) {
+			DockableWrapper wrapper = DockingInternal.get(docking).getWrapper(dockable);
+
+			if (wrapper.getWindow() == originalWindow && docking.isDocked(dockable) && !dragged.contains(wrapper)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// put the source back where it was after an illegal drop. a deferred undock never moved it
+	private void restoreSource() {
+		if (!deferredUndock) {
+			docking.getDockingState().restoreWindowLayout(originalWindow, windowLayout);
+		}
+	}
+
+	// detach a dockable that is still docked before inserting it into a tab group, returning the adjusted tab index
+	private int detachForTabInsert(DockedTabbedPanel parent, DockableWrapper wrapper, int index) {
+		if (!docking.isDocked(wrapper.getDockable())) {
+			return index;
+		}
+
+		int currentIndex = parent.getDockables().indexOf(wrapper);
+
+		if (currentIndex != -1) {
+			// moving within the same tab group, remove it without letting the group collapse
+			parent.removePanel(wrapper);
+
+			return index > currentIndex ? index - 1 : index;
+		}
+
+		docking.undock(wrapper.getDockable());
+
+		return index;
+	}
+
+	// show the source again after a deferred undock, either where it was or where it was dropped
+	private void showSource() {
+		// the source wasn't moved out of its tab group, select it again
+		if (sourceTabs != null) {
+			DockableWrapper wrapper = ((DisplayPanel) floatingPanel).getWrapper();
+
+			if (sourceTabs.getDockables().contains(wrapper)) {
+				sourceTabs.bringToFront(wrapper.getDockable());
+			}
+			sourceTabs = null;
+		}
+
+		Container parent = floatingPanel.getParent();
+
+		// tabbed panes only show the selected tab
+		floatingPanel.setVisible(!(parent instanceof JTabbedPane) || ((JTabbedPane) parent).getSelectedComponent() == floatingPanel);
+
+		DockingComponentUtils.removeIllegalFloats(docking, originalWindow);
+
+		RootDockingPanelAPI originalRoot = originalWindow == null ? null : DockingComponentUtils.rootForWindow(docking, originalWindow);
+
+		if (originalRoot != null && originalRoot.isEmpty() && docking.canDisposeWindow(originalWindow)) {
+			windowToDispose = originalWindow;
+		}
+		else if (hiddenWindow != null) {
+			hiddenWindow.setVisible(true);
+		}
+		hiddenWindow = null;
 	}
 
 	private void dropFloatingPanel() {
+		// a deferred undock moves the source in a single batch, so the layout is validated and persisted once
+		if (deferredUndock) {
+			docking.batch(this::finishDrop);
+		}
+		else {
+			finishDrop();
+		}
+	}
+
+	private void finishDrop() {
 		docking.getAppState().setPaused(false);
 
-		Point mousePos = MouseInfo.getPointerInfo().getLocation();
+		// use the target the overlays are showing, only resolve it again if nothing was resolved over the current window
+		boolean resolved = lastHit != null && lastHitWindow == currentTargetWindow;
+
+		Point mousePos = resolved ? lastPosition : MouseInfo.getPointerInfo().getLocation();
+
+		RootDockingPanelAPI root = currentTargetWindow == null ? null : DockingComponentUtils.rootForWindow(docking, currentTargetWindow);
 
-		Point point = MouseInfo.getPointerInfo().getLocation();
+		DockingHitTestIndex.Hit hit = resolved ? lastHit : DockingComponentUtils.hitTest(mousePos, currentTargetWindow);
 
-		RootDockingPanelAPI root = currentTopWindow == null ? null : DockingComponentUtils.rootForWindow(docking, currentTopWindow);
+		lastPosition = null;
+		lastHit = null;
+		lastHitWindow = null;
 
-		DockingPanel dockingPanel = DockingComponentUtils.findDockingPanelAtScreenPos(point, currentTopWindow);
-		Dockable dockableAtPos = DockingComponentUtils.findDockableAtScreenPos(point, currentTopWindow);
+		DockingPanel dockingPanel = hit.getDockingPanel();
+		Dockable dockableAtPos = hit.getDockable();
 
 //		Dockable dockableAtPos = activeUtilsFrame.getTargetDockable();
 		
@@ -410,53 +539,34 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 			DockableWrapper floatingDockable = ((DisplayPanel) this.floatingPanel).getWrapper();
 
 			if (activeUtilsFrame != null && activeUtilsFrame.isDockingToPin()) {
-				docking.unpinDockable(floatingDockable.getDockable(), activeUtilsFrame.getToolbarLocation(), currentTopWindow, root);
+				docking.unpinDockable(floatingDockable.getDockable(), activeUtilsFrame.getToolbarLocation(), currentTargetWindow, root);
 			}
 			else if (root != null && activeUtilsFrame != null && activeUtilsFrame.isDockingToRoot()) {
-				docking.dock(floatingDockable.getDockable(), currentTopWindow, region, 0.25);
+				docking.dock(floatingDockable.getDockable(), currentTargetWindow, region, 0.25);
 			}
 			else if (floatingDockable.getDockable().isLimitedToRoot() && floatingDockable.getRoot() != root) {
-				docking.getDockingState().restoreWindowLayout(originalWindow, windowLayout);
+				restoreSource();
 			}
-			else if (dockableAtPos != null && currentTopWindow != null && dockingPanel != null && activeUtilsFrame != null && activeUtilsFrame.isDockingToDockable()) {
+			else if (dockableAtPos != null && currentTargetWindow != null && dockingPanel != null && activeUtilsFrame != null && activeUtilsFrame.isDockingToDockable()) {
 				docking.dock(floatingDockable.getDockable(), dockableAtPos, region);
 			}
 			else if (root != null && region != DockingRegion.CENTER && activeUtilsFrame == null) {
-				docking.dock(floatingDockable.getDockable(), currentTopWindow, region);
+				docking.dock(floatingDockable.getDockable(), currentTargetWindow, region);
 			}
 			else if (!floatingDockable.getDockable().isFloatingAllowed()) {
-				docking.getDockingState().restoreWindowLayout(originalWindow, windowLayout);
+				restoreSource();
 			}
 			else if (dockableAtPos == null && root != null) {
 				// we're inserting at a specific position in a tabbed pane
-				CustomTabbedPane tabbedPane = (CustomTabbedPane) DockingComponentUtils.findTabbedPaneAtPos(point, currentTopWindow);
+				CustomTabbedPane tabbedPane = hit.getTabbedPane();
 
 				if (tabbedPane != null) {
 					DockedTabbedPanel parent = (DockedTabbedPanel) tabbedPane.getParent();
 
-					int targetTabIndex = tabbedPane.getTargetTabIndex(point, true);
-
-					Rectangle boundsAt;
-
-					if (targetTabIndex != -1) {
-						boundsAt = tabbedPane.getBoundsAt(targetTabIndex);
-
-						Point p = new Point(boundsAt.x, boundsAt.y);
-						SwingUtilities.convertPointToScreen(p, tabbedPane);
-						SwingUtilities.convertPointFromScreen(p, activeUtilsFrame);
-						boundsAt.x = p.x;
-						boundsAt.y = p.y;
+					int targetTabIndex = resolved && activeUtilsFrame != null ? lastTargetTabIndex : tabbedPane.getTargetTabIndex(mousePos, true);
 
-						boundsAt.width /= 2;
-					} else {
-						boundsAt = tabbedPane.getBoundsAt(tabbedPane.getTabCount() - 1);
-
-						Point p = new Point(boundsAt.x, boundsAt.y);
-						SwingUtilities.convertPointToScreen(p, tabbedPane);
-						SwingUtilities.convertPointFromScreen(p, activeUtilsFrame);
-						boundsAt.x = p.x;
-						boundsAt.y = p.y;
-						boundsAt.x += boundsAt.width;
+					if (deferredUndock) {
+						targetTabIndex = detachForTabInsert(parent, floatingDockable, targetTabIndex);
 					}
 
 					parent.dockAtIndex(floatingDockable.getDockable(), targetTabIndex);
@@ -474,7 +584,7 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 
 			for (DockableWrapper dockable : dockables) {
 				if (first) {
-					if (dockableAtPos != null && currentTopWindow != null && dockingPanel != null && activeUtilsFrame != null && activeUtilsFrame.isDockingToDockable()) {
+					if (dockableAtPos != null && currentTargetWindow != null && dockingPanel != null && activeUtilsFrame != null && activeUtilsFrame.isDockingToDockable()) {
 						docking.dock(dockable.getDockable(), dockableAtPos, region);
 					}
 					else {
@@ -491,6 +601,10 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 			docking.bringToFront(dockables.get(floatingFrame.getSelectedIndex()).getDockable());
 		}
 
+		if (deferredUndock) {
+			showSource();
+		}
+
 		// auto persist the new layout to the file
 		docking.getAppState().persist();
 
@@ -523,6 +637,9 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 			activeUtilsFrame.setActive(false);
 			activeUtilsFrame = null;
 		}
+
+		// the utility frames are released if there isn't another drag soon
+		DockingUtilsFramePool.dragEnded();
 	}
 
 	@Override
@@ -530,6 +647,9 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 		if (!isFloating) {
 			return;
 		}
+		// apply the last position before dropping so that the overlays match the drop location
+		motionPacer.stop();
+
 		dropFloatingPanel();
 
 		isFloating = false;
@@ -540,6 +660,6 @@ public class FloatListener extends DragSourceAdapter implements DragSourceListen
 		if (!isFloating) {
 			return;
 		}
-		updateFramePosition(dsde.getLocation());
+		motionPacer.post(dsde.getLocation());
 	}
 }
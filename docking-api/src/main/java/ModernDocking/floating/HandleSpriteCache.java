@@ -0,0 +1,125 @@
+/*
+Copyright (c) 2024 Andrew Auclair
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package ModernDocking.floating;
+
+import ModernDocking.ui.DockingSettings;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Cache of pre-rendered docking handle images. Handles are drawn once per screen scale and set of theme colors,
+ * painting them during a drag is then only a matter of drawing these images.
+ */
+class HandleSpriteCache {
+	// sprites by screen scale, then by name
+	private static final Map<Double, Map<String, BufferedImage>> sprites = new HashMap<>();
+
+	// colors the cached sprites were drawn with
+	private static Color background = null;
+	private static Color foreground = null;
+
+	// incremented every time the cache is cleared
+	private static int generation = 0;
+
+	static {
+		// the theme colors change with the look and feel
+		UIManager.addPropertyChangeListener(e -> {
+			if ("lookAndFeel".equals(e.getPropertyName())) {
+				SwingUtilities.invokeLater(HandleSpriteCache::clear);
+			}
+		});
+	}
+
+	private HandleSpriteCache() {
+	}
+
+	/**
+	 * Clear the cache if the handle colors have changed since the sprites were drawn. Called once before painting the handles.
+	 */
+	static void validate() {
+		Color background = DockingSettings.getHandleBackground();
+		Color foreground = DockingSettings.getHandleForeground();
+
+		if (!background.equals(HandleSpriteCache.background) || !foreground.equals(HandleSpriteCache.foreground)) {
+			clear();
+
+			HandleSpriteCache.background = background;
+			HandleSpriteCache.foreground = foreground;
+		}
+	}
+
+	/**
+	 * Remove all cached sprites
+	 */
+	static void clear() {
+		sprites.clear();
+		background = null;
+		foreground = null;
+		generation++;
+	}
+
+	/**
+	 * Get the generation of the cache. Anything drawn with the sprites has to be redrawn when this changes.
+	 *
+	 * @return Cache generation
+	 */
+	static int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Get a sprite, drawing it if it isn't cached for the scale of the target yet
+	 *
+	 * @param target Graphics the sprite will be drawn to
+	 * @param name Unique name of the sprite
+	 * @param width Width of the sprite, unscaled
+	 * @param height Height of the sprite, unscaled
+	 * @param painter Paints the sprite, unscaled, with the origin at the top left of the sprite
+	 * @return The sprite image, to be drawn at width x height
+	 */
+	static Image getSprite(Graphics2D target, String name, int width, int height, Consumer<Graphics2D> painter) {
+		double scale = target.getTransform().getScaleX();
+
+		Map<String, BufferedImage> scaled = sprites.computeIfAbsent(scale, s -> new HashMap<>());
+
+		BufferedImage sprite = scaled.get(name);
+
+		if (sprite == null) {
+			sprite = target.getDeviceConfiguration().createCompatibleImage((int) Math.ceil(width * scale), (int) Math.ceil(height * scale), Transparency.TRANSLUCENT);
+
+			Graphics2D g = sprite.createGraphics();
+			g.scale(scale, scale);
+
+			painter.accept(g);
+
+			g.dispose();
+
+			scaled.put(name, sprite);
+		}
+		return sprite;
+	}
+}
@@ -22,10 +22,12 @@ SOFTWARE.
 package ModernDocking.floating;
 
 import ModernDocking.internal.DockableWrapper;
+import ModernDocking.internal.DockedTabbedPanel;
 import ModernDocking.settings.Settings;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.util.Collections;
 import java.util.List;
 
@@ -41,13 +43,28 @@ public class TempFloatingFrame extends JFrame {
 		dockables = Collections.emptyList();
 		selectedIndex = 0;
 
-		build(dockable.getDisplayPanel(), dragSrc, size);
+		if (useSnapshot()) {
+			build(new SnapshotPreview(dockable.getDisplayPanel(), size), dragSrc, size);
+		}
+		else {
+			build(dockable.getDisplayPanel(), dragSrc, size);
+		}
 	}
 
 	public TempFloatingFrame(List<DockableWrapper> dockables, int selectedIndex, JComponent dragSrc, Dimension size) {
 		this.dockables = dockables;
 		this.selectedIndex = selectedIndex;
 
+		if (useSnapshot()) {
+			// take a picture of the whole tab group if we're dragging all of it
+			boolean draggingGroup = dragSrc instanceof DockedTabbedPanel && ((DockedTabbedPanel) dragSrc).getDockables().size() == dockables.size();
+
+			JComponent component = draggingGroup ? dragSrc : dockables.get(selectedIndex).getDisplayPanel();
+
+			build(new SnapshotPreview(component, size), dragSrc, size);
+			return;
+		}
+
 		JTabbedPane tabs = new JTabbedPane();
 
 		// we only support tabs on top if we have FlatLaf because we can add a trailing component for our menu
@@ -117,6 +134,11 @@ public class TempFloatingFrame extends JFrame {
 		setVisible(true);
 	}
 
+	// the dockables can't be moved into this frame while they're still docked
+	private static boolean useSnapshot() {
+		return Settings.isSnapshotDragPreviewEnabled() || Settings.isDeferredDragUndockEnabled();
+	}
+
 	public List<DockableWrapper> getDockables() {
 		return dockables;
 	}
@@ -124,4 +146,39 @@ public class TempFloatingFrame extends JFrame {
 	public int getSelectedIndex() {
 		return selectedIndex;
 	}
+
+	/**
+	 * paints an image of the dragged components. the real components stay out of this frame and don't need to be laid out or painted while dragging
+	 */
+	private static class SnapshotPreview extends JComponent {
+		private static final long serialVersionUID = 1L;
+
+		private final BufferedImage snapshot;
+
+		SnapshotPreview(JComponent component, Dimension size) {
+			int width = component.getWidth() > 0 ? component.getWidth() : size.width;
+			int height = component.getHeight() > 0 ? component.getHeight() : size.height;
+
+			// take the snapshot at the scale of the screen so that it stays sharp on HiDPI displays
+			GraphicsConfiguration configuration = component.getGraphicsConfiguration();
+			double scale = configuration != null ? configuration.getDefaultTransform().getScaleX() : 1.0;
+
+			snapshot = new BufferedImage(Math.max(1, (int) Math.ceil(width * scale)), Math.max(1, (int) Math.ceil(height * scale)), BufferedImage.TYPE_INT_ARGB);
+
+			Graphics2D g = snapshot.createGraphics();
+			g.scale(scale, scale);
+			component.paint(g);
+			g.dispose();
+
+			setPreferredSize(size);
+		}
+
+		@Override
+		protected void paintComponent(Graphics g) {
+			Graphics2D g2 = (Graphics2D) g.create();
+			g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g2.drawImage(snapshot, 0, 0, getWidth(), getHeight(), null);
+			g2.dispose();
+		}
+	}
 }
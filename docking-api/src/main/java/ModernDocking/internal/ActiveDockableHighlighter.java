@@ -37,11 +37,16 @@ import java.beans.PropertyChangeListener;
 /**
  * This class is responsible for adding a selected border around the dockable at the current mouse position.
  * <p>
- * Using an AWT Event Listener we can listen for global MOUSE_ENTERED and MOUSE_EXITED to add/remove the border.
+ * The mouse listener is only installed while one of our docking windows is the active window. Enter events are
+ * resolved by walking up from the component that received them, so no hit testing across windows is needed.
  */
 public class ActiveDockableHighlighter {
+	private final DockingAPI docking;
 	private final AWTEventListener awtEventListener;
 	private final PropertyChangeListener propertyChangeListener;
+	private final PropertyChangeListener activeWindowListener;
+	// true while the AWT event listener is installed
+	private boolean listening = false;
 	// the current active panel
 	private DockingPanel activePanel = null;
 
@@ -49,47 +54,46 @@ public class ActiveDockableHighlighter {
 	 * Default constructor to create the highlighter
 	 */
 	public ActiveDockableHighlighter(DockingAPI docking) {
+		this.docking = docking;
+
 		if (!Settings.isActiveHighlighterEnabled()) {
 			awtEventListener = e -> {};
 			propertyChangeListener = e -> {};
+			activeWindowListener = e -> {};
 			return;
 		}
 
 		// use an AWT event listener to set a border around the dockable that the mouse is currently over
 		awtEventListener = e -> {
-			if (e.getID() == MouseEvent.MOUSE_ENTERED || e.getID() == MouseEvent.MOUSE_EXITED) {
-				DockingPanel dockable = DockingComponentUtils.findDockingPanelAtScreenPos(docking, ((MouseEvent) e).getLocationOnScreen());
-
-				if (activePanel != null && dockable == null) {
-					setNotSelectedBorder(activePanel);
-					activePanel = null;
-				}
+			MouseEvent mouseEvent = (MouseEvent) e;
 
-				if (activePanel != dockable && (dockable instanceof DockedSimplePanel || dockable instanceof DockedTabbedPanel)) {
-					if (activePanel != null) {
-						setNotSelectedBorder(activePanel);
-					}
-					activePanel = dockable;
-					setSelectedBorder();
+			if (e.getID() == MouseEvent.MOUSE_ENTERED) {
+				setActivePanel(findPanel(mouseEvent.getComponent()));
+			}
+			else if (e.getID() == MouseEvent.MOUSE_EXITED) {
+				// the exit can be into a component without mouse listeners, which won't get an enter event
+				if (activePanel != null) {
+					setActivePanel(findPanel(componentUnderMouse(mouseEvent)));
 				}
+			}
+			else if (e.getID() == MouseEvent.MOUSE_PRESSED) {
+				Dockable dockable = findDockable(mouseEvent.getComponent());
 
-			} else if (e.getID() == MouseEvent.MOUSE_PRESSED) {
-				Dockable dockable = DockingComponentUtils.findDockableAtScreenPos(docking, ((MouseEvent) e).getLocationOnScreen());
-
-				if (dockable != null) {
+				if (dockable != null && !DockingInternal.get(docking).getWrapper(dockable).isUnpinned()) {
 					Window window = DockingComponentUtils.findWindowForDockable(docking, dockable);
 
-					if (!DockingInternal.get(docking).getWrapper(dockable).isUnpinned()) {
-						try {
-							RootDockingPanelAPI root = DockingComponentUtils.rootForWindow(docking, window);
-							root.hideUnpinnedPanels();
-						} catch (DockableRegistrationFailureException ignore) {
-						}
+					try {
+						RootDockingPanelAPI root = DockingComponentUtils.rootForWindow(docking, window);
+						root.hideUnpinnedPanels();
+					} catch (DockableRegistrationFailureException ignore) {
 					}
 				}
 			}
 		};
-		Toolkit.getDefaultToolkit().addAWTEventListener(awtEventListener, AWTEvent.MOUSE_EVENT_MASK);
+
+		// only listen for mouse events while one of our docking windows is active
+		activeWindowListener = e -> setListening(isDockingWindow((Window) e.getNewValue()));
+		KeyboardFocusManager.getCurrentKeyboardFocusManager().addPropertyChangeListener("activeWindow", activeWindowListener);
 
 		propertyChangeListener = e -> {
 			if ("lookAndFeel".equals(e.getPropertyName())) {
@@ -105,23 +109,96 @@ public class ActiveDockableHighlighter {
 	}
 
 	public void removeListeners() {
-		Toolkit.getDefaultToolkit().removeAWTEventListener(awtEventListener);
+		setListening(false);
+		KeyboardFocusManager.getCurrentKeyboardFocusManager().removePropertyChangeListener("activeWindow", activeWindowListener);
 		UIManager.removePropertyChangeListener(propertyChangeListener);
 	}
 
+	/**
+	 * Check the active window again. Used when a docking window is registered or deregistered while it is active.
+	 */
+	public void updateActiveWindow() {
+		if (Settings.isActiveHighlighterEnabled()) {
+			setListening(isDockingWindow(KeyboardFocusManager.getCurrentKeyboardFocusManager().getActiveWindow()));
+		}
+	}
+
+	private boolean isDockingWindow(Window window) {
+		return window != null && docking.getRootPanels().containsKey(window);
+	}
+
+	private void setListening(boolean listen) {
+		if (listen == listening) {
+			return;
+		}
+		listening = listen;
+
+		if (listen) {
+			Toolkit.getDefaultToolkit().addAWTEventListener(awtEventListener, AWTEvent.MOUSE_EVENT_MASK);
+		}
+		else {
+			Toolkit.getDefaultToolkit().removeAWTEventListener(awtEventListener);
+			setActivePanel(null);
+		}
+	}
+
+	private void setActivePanel(DockingPanel panel) {
+		if (panel == activePanel) {
+			return;
+		}
+		if (activePanel != null) {
+			setNotSelectedBorder(activePanel);
+		}
+		activePanel = panel;
+
+		if (activePanel != null) {
+			setSelectedBorder();
+		}
+	}
+
+	// the nearest simple or tabbed panel containing the component, if it's in one of our docking windows
+	private DockingPanel findPanel(Component component) {
+		DockingPanel panel = null;
+
+		while (component != null && !(component instanceof Window)) {
+			if (panel == null && (component instanceof DockedSimplePanel || component instanceof DockedTabbedPanel)) {
+				panel = (DockingPanel) component;
+			}
+			component = component.getParent();
+		}
+		return panel != null && docking.getRootPanels().containsKey(component) ? panel : null;
+	}
+
+	private Dockable findDockable(Component component) {
+		while (component != null && !(component instanceof Window)) {
+			if (component instanceof DisplayPanel) {
+				DockableWrapper wrapper = ((DisplayPanel) component).getWrapper();
+
+				return wrapper.getWindow() != null && docking.getRootPanels().containsKey(wrapper.getWindow()) ? wrapper.getDockable() : null;
+			}
+			component = component.getParent();
+		}
+		return null;
+	}
+
+	// find the deepest component under the mouse in the window of the event, only this one window is searched
+	private static Component componentUnderMouse(MouseEvent e) {
+		Component source = e.getComponent();
+		Window window = source instanceof Window ? (Window) source : SwingUtilities.getWindowAncestor(source);
+
+		if (window == null) {
+			return null;
+		}
+		Point point = SwingUtilities.convertPoint(source, e.getPoint(), window);
+
+		return SwingUtilities.getDeepestComponentAt(window, point.x, point.y);
+	}
+
 	private void setSelectedBorder() {
-		Color color = DockingSettings.getHighlighterSelectedBorder();
-		activePanel.setBorder(BorderFactory.createLineBorder(color, 2));
+		activePanel.setBorder(DockingSettings.getTheme().getSelectedBorder());
 	}
 
 	public static void setNotSelectedBorder(DockingPanel panel) {
-		Color color = DockingSettings.getHighlighterNotSelectedBorder();
-
-		panel.setBorder(
-				BorderFactory.createCompoundBorder(
-						BorderFactory.createEmptyBorder(1, 1, 1, 1),
-						BorderFactory.createLineBorder(color, 1)
-				)
-		);
+		panel.setBorder(DockingSettings.getTheme().getNotSelectedBorder());
 	}
 }
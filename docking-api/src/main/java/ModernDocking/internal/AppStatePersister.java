@@ -61,16 +61,22 @@ public class AppStatePersister extends ComponentAdapter implements WindowStateLi
 
 	@Override
 	public void componentResized(ComponentEvent e) {
-		docking.getAppState().persist();
+		persist();
 	}
 
 	@Override
 	public void componentMoved(ComponentEvent e) {
-		docking.getAppState().persist();
+		persist();
 	}
 
 	@Override
 	public void windowStateChanged(WindowEvent e) {
+		persist();
+	}
+
+	// the journal can't describe windows moving or resizing, these are always written in full
+	private void persist() {
+		DockingInternal.get(docking).getJournal().invalidate();
 		docking.getAppState().persist();
 	}
 }
@@ -0,0 +1,195 @@
+/*
+Copyright (c) 2024 Andrew Auclair
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package ModernDocking.internal;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes layouts to disk on a background thread. Layouts are captured on the EDT and handed to this writer.
+ * Only the newest pending write for each file is kept, older writes that haven't started yet are dropped.
+ */
+public class AsyncLayoutWriter {
+	private static final String className = AsyncLayoutWriter.class.getName();
+	private static final Logger logger = Logger.getLogger(className.substring(0, className.lastIndexOf('.')));
+
+	/**
+	 * A single layout write. This is run off of the EDT and must not touch any Swing components.
+	 */
+	public interface LayoutWrite {
+		void write() throws Exception;
+	}
+
+	/**
+	 * Writes the contents of a file to a stream
+	 */
+	public interface StreamWriter {
+		void write(OutputStream out) throws IOException;
+	}
+
+	private static final AsyncLayoutWriter instance = new AsyncLayoutWriter();
+
+	private final Map<File, LayoutWrite> pending = new ConcurrentHashMap<>();
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "ModernDocking Layout Writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final AtomicLong droppedWrites = new AtomicLong();
+
+	private AsyncLayoutWriter() {
+	}
+
+	/**
+	 * Get the writer shared by all docking instances
+	 *
+	 * @return The shared writer
+	 */
+	public static AsyncLayoutWriter getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Queue a write to the given file. Replaces any write to the same file that has not started yet.
+	 *
+	 * @param file The file being written
+	 * @param write The write to perform
+	 */
+	public void submit(File file, LayoutWrite write) {
+		// a write was already waiting for this file, it's been replaced and the queued task will pick up the new one
+		if (pending.put(file, write) != null) {
+			droppedWrites.incrementAndGet();
+			return;
+		}
+		executor.execute(() -> drain(file));
+	}
+
+	/**
+	 * Queue a write that must not be dropped, such as a journal append. Runs in order with all other writes.
+	 *
+	 * @param write The write to perform
+	 */
+	public void execute(LayoutWrite write) {
+		executor.execute(() -> {
+			try {
+				write.write();
+			}
+			catch (Exception e) {
+				logger.log(Level.INFO, e.getMessage(), e);
+			}
+		});
+	}
+
+	private void drain(File file) {
+		LayoutWrite write = pending.remove(file);
+
+		if (write == null) {
+			return;
+		}
+
+		try {
+			write.write();
+		}
+		catch (Exception e) {
+			logger.log(Level.INFO, e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Wait for all queued writes to finish
+	 *
+	 * @param timeout Maximum time to wait
+	 * @param unit Unit of the timeout
+	 * @return True if all writes finished before the timeout
+	 */
+	public boolean awaitIdle(long timeout, TimeUnit unit) {
+		// the executor is single threaded, once this runs everything queued before it is done
+		Future<?> marker = executor.submit(() -> {});
+
+		try {
+			marker.get(timeout, unit);
+			return true;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		catch (ExecutionException | TimeoutException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Get the number of writes that were replaced by a newer write before they started
+	 *
+	 * @return Number of dropped writes
+	 */
+	public long getDroppedWriteCount() {
+		return droppedWrites.get();
+	}
+
+	/**
+	 * Write a file by writing to a temp file in the same directory and then moving it over the real file.
+	 * The file is never left partially written.
+	 *
+	 * @param file The file to write
+	 * @param streamWriter Writes the contents of the file
+	 * @throws IOException Thrown if the file could not be written
+	 */
+	public static void writeAtomically(File file, StreamWriter streamWriter) throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+
+		// make sure all the required directories exist
+		parent.mkdirs();
+
+		Path temp = Files.createTempFile(parent.toPath(), file.getName(), ".tmp");
+
+		try {
+			try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+				streamWriter.write(out);
+			}
+
+			try {
+				Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+}
@@ -28,6 +28,16 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 
 public class CustomTabbedPane extends JTabbedPane {
+    // tab bounds along the tab strip, cached until the next layout change. null when they need to be rebuilt
+    // these are not initialized here because updateUI and invalidate are called from the JTabbedPane constructor
+    private Rectangle[] tabBounds;
+    private int[] tabStarts;
+    private int[] tabEnds;
+    // true if the tabs are in a single run, in order and not overlapping, so we can binary search them
+    private boolean sortedTabs;
+
+    private final Point convertedPoint = new Point();
+
     public CustomTabbedPane() {
         setFocusable(false);
 
@@ -82,26 +92,116 @@ public class CustomTabbedPane extends JTabbedPane {
         );
     }
 
+    @Override
+    public void updateUI() {
+        super.updateUI();
+
+        // scrolling the tabs moves them without a layout change. the viewport is created by the UI
+        for (Component child : getComponents()) {
+            if (child instanceof JViewport) {
+                ((JViewport) child).addChangeListener(e -> tabBounds = null);
+            }
+        }
+        tabBounds = null;
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+
+        // called for added and removed tabs, title and icon changes and resizing
+        tabBounds = null;
+    }
+
+    /**
+     * Find the tab at a position on screen. The point is not modified.
+     *
+     * @param mousePosOnScreen Position on screen
+     * @param ignoreY Only check the position along the tab strip
+     * @return Index of the tab, -1 if there is no tab at the position
+     */
     public int getTargetTabIndex(Point mousePosOnScreen, boolean ignoreY) {
-        SwingUtilities.convertPointFromScreen(mousePosOnScreen, this);
+        convertedPoint.setLocation(mousePosOnScreen);
+        SwingUtilities.convertPointFromScreen(convertedPoint, this);
 
-        Point d = isTopBottomTabPlacement(getTabPlacement()) ? new Point(1, 0) : new Point(0, 1);
+        return getTabIndexAt(convertedPoint.x, convertedPoint.y, ignoreY);
+    }
 
-        for (int i = 0; i < getTabCount(); i++) {
-            Rectangle tab = getBoundsAt(i);
+    /**
+     * Find the tab at a position in this tabbed pane
+     *
+     * @param x X position in this tabbed pane
+     * @param y Y position in this tabbed pane
+     * @param ignoreY Only check the position along the tab strip
+     * @return Index of the tab, -1 if there is no tab at the position
+     */
+    public int getTabIndexAt(int x, int y, boolean ignoreY) {
+        if (tabBounds == null) {
+            cacheTabBounds();
+        }
+
+        boolean horizontal = isTopBottomTabPlacement(getTabPlacement());
+        int pos = horizontal ? x : y;
+
+        if (sortedTabs) {
+            // find the last tab starting at or before the position
+            int low = 0;
+            int high = tabStarts.length - 1;
+            int index = -1;
+
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
 
-            if (ignoreY) {
-                // we only care to check the x value
-                mousePosOnScreen.y = tab.y;
+                if (tabStarts[mid] <= pos) {
+                    index = mid;
+                    low = mid + 1;
+                }
+                else {
+                    high = mid - 1;
+                }
+            }
+
+            if (index != -1 && pos < tabEnds[index] && (ignoreY || tabBounds[index].contains(x, y))) {
+                return index;
             }
+            return -1;
+        }
 
-            if (tab.contains(mousePosOnScreen)) {
+        for (int i = 0; i < tabBounds.length; i++) {
+            if (pos >= tabStarts[i] && pos < tabEnds[i] && (ignoreY || tabBounds[i].contains(x, y))) {
                 return i;
             }
         }
         return -1;
     }
 
+    private void cacheTabBounds() {
+        int count = getTabCount();
+        boolean horizontal = isTopBottomTabPlacement(getTabPlacement());
+
+        tabBounds = new Rectangle[count];
+        tabStarts = new int[count];
+        tabEnds = new int[count];
+        sortedTabs = getTabRunCount() <= 1;
+
+        for (int i = 0; i < count; i++) {
+            Rectangle tab = getBoundsAt(i);
+
+            if (tab == null) {
+                tab = new Rectangle();
+            }
+
+            tabBounds[i] = tab;
+            tabStarts[i] = horizontal ? tab.x : tab.y;
+            tabEnds[i] = horizontal ? tab.x + tab.width : tab.y + tab.height;
+
+            // right to left tabs or tabs in multiple runs have to be checked one at a time
+            if (tab.isEmpty() || (i > 0 && tabStarts[i] < tabEnds[i - 1])) {
+                sortedTabs = false;
+            }
+        }
+    }
+
     public static boolean isTopBottomTabPlacement(int tabPlacement) {
         return tabPlacement == TOP || tabPlacement == BOTTOM;
     }
@@ -35,6 +35,11 @@ public class DisplayPanel extends JPanel {
 	 */
 	private final DockableWrapper wrapper;
 
+	/**
+	 * The dockable, or the JScrollPane wrapping it. Created once so that the scroll position is kept when the parent changes
+	 */
+	private Component content = null;
+
 	/**
 	 * Create a new internal display panel for the dockable
 	 *
@@ -48,8 +53,16 @@ public class DisplayPanel extends JPanel {
 		buildUI();
 	}
 
+	// add the content once, then only add or remove the header when it needs to change
 	private void buildUI() {
-		removeAll();
+		if (content == null) {
+			if (wrapper.getDockable().isWrappableInScrollpane()) {
+				content = new JScrollPane((Component) wrapper.getDockable());
+			}
+			else {
+				content = (Component) wrapper.getDockable();
+			}
+		}
 
 		GridBagConstraints gbc = new GridBagConstraints();
 
@@ -58,21 +71,27 @@ public class DisplayPanel extends JPanel {
 		gbc.fill = GridBagConstraints.HORIZONTAL;
 		gbc.weightx = 1.0;
 
+		Component header = (Component) wrapper.getHeaderUI();
+		boolean displayHeader = false;
+
 		if (!Settings.alwaysDisplayTabsMode(wrapper.getDockable()) || wrapper.isUnpinned()) {
-			if (!(wrapper.getParent() instanceof DockedTabbedPanel) || ((DockedTabbedPanel) wrapper.getParent()).isUsingBottomTabs()) {
-				add((Component) wrapper.getHeaderUI(), gbc);
-				gbc.gridy++;
-			}
+			displayHeader = !(wrapper.getParent() instanceof DockedTabbedPanel) || ((DockedTabbedPanel) wrapper.getParent()).isUsingBottomTabs();
 		}
 
-		gbc.weighty = 1.0;
-		gbc.fill = GridBagConstraints.BOTH;
-
-		if (wrapper.getDockable().isWrappableInScrollpane()) {
-			add(new JScrollPane((Component) wrapper.getDockable()), gbc);
+		if (displayHeader && header.getParent() != this) {
+			add(header, gbc);
 		}
-		else {
-			add((Component) wrapper.getDockable(), gbc);
+		else if (!displayHeader && header.getParent() == this) {
+			remove(header);
+		}
+
+		// the content is always in the second row, the first row takes no space without the header
+		if (content.getParent() != this) {
+			gbc.gridy = 1;
+			gbc.weighty = 1.0;
+			gbc.fill = GridBagConstraints.BOTH;
+
+			add(content, gbc);
 		}
 	}
 
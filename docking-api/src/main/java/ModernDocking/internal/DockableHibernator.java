@@ -0,0 +1,157 @@
+/*
+Copyright (c) 2024 Andrew Auclair
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package ModernDocking.internal;
+
+import ModernDocking.Dockable;
+import ModernDocking.event.DockingEvent;
+import ModernDocking.event.DockingListener;
+import ModernDocking.settings.Settings;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Hibernates the dockables that have been hidden the longest once more than Settings.getHibernationLimit() hidden
+ * dockables are awake. Hidden dockables are non-selected tabs, unpinned panels that aren't displayed and undocked dockables.
+ * <p>
+ * Hibernated dockables are rehydrated by the docking panels before their display panel is shown again.
+ */
+class DockableHibernator implements DockingListener {
+	private static DockableHibernator instance = null;
+
+	// hidden dockables that are still awake, least recently hidden first
+	private final Set<Dockable> hidden = new LinkedHashSet<>();
+	// dockables that have been hibernated
+	private final Set<Dockable> hibernating = new HashSet<>();
+
+	private DockableHibernator() {
+	}
+
+	/**
+	 * Start listening for dockables being shown and hidden. Only one hibernator is used for all docking instances.
+	 */
+	static void install() {
+		if (instance == null) {
+			instance = new DockableHibernator();
+			DockingListeners.addDockingListener(instance);
+		}
+	}
+
+	/**
+	 * Stop tracking a dockable that has been deregistered
+	 *
+	 * @param dockable Dockable to forget
+	 */
+	static void forget(Dockable dockable) {
+		if (instance != null) {
+			instance.hidden.remove(dockable);
+			instance.hibernating.remove(dockable);
+		}
+	}
+
+	/**
+	 * Wake up a dockable if it's hibernating. Called before the display panel of the dockable is shown.
+	 *
+	 * @param dockable Dockable that is about to be shown
+	 */
+	static void rehydrate(Dockable dockable) {
+		if (instance != null) {
+			instance.shown(dockable);
+		}
+	}
+
+	@Override
+	public void dockingChange(DockingEvent e) {
+		switch (e.getID()) {
+			case SHOWN:
+				shown(e.getDockable());
+				break;
+			case DOCKED:
+				// restoring a layout fires docked events for every dockable, including tabs that aren't selected
+				if (isDisplayed(e.getDockable())) {
+					shown(e.getDockable());
+				}
+				else {
+					hidden(e.getDockable());
+				}
+				break;
+			case HIDDEN:
+			case UNDOCKED:
+				hidden(e.getDockable());
+				break;
+			default:
+				break;
+		}
+	}
+
+	// check if the dockable is the selected tab of its tabbed panel, or in a simple panel
+	private static boolean isDisplayed(Dockable dockable) {
+		DisplayPanel displayPanel = (DisplayPanel) SwingUtilities.getAncestorOfClass(DisplayPanel.class, (Component) dockable);
+
+		if (displayPanel == null) {
+			return false;
+		}
+		DockableWrapper wrapper = displayPanel.getWrapper();
+
+		if (wrapper.getParent() instanceof DockedTabbedPanel) {
+			DockedTabbedPanel tabbedPanel = (DockedTabbedPanel) wrapper.getParent();
+
+			return tabbedPanel.getSelectedTabIndex() != -1 && tabbedPanel.getSelectedTabID().equals(dockable.getPersistentID());
+		}
+		return !wrapper.isUnpinned();
+	}
+
+	private void shown(Dockable dockable) {
+		hidden.remove(dockable);
+
+		if (hibernating.remove(dockable)) {
+			dockable.rehydrate();
+		}
+	}
+
+	private void hidden(Dockable dockable) {
+		int limit = Settings.getHibernationLimit();
+
+		if (limit <= 0 || hibernating.contains(dockable)) {
+			return;
+		}
+
+		// move it to the end, it's now the most recently hidden
+		hidden.remove(dockable);
+		hidden.add(dockable);
+
+		List<Dockable> toHibernate = new ArrayList<>();
+
+		for (Iterator<Dockable> iterator = hidden.iterator(); hidden.size() > limit; ) {
+			Dockable eldest = iterator.next();
+			iterator.remove();
+
+			hibernating.add(eldest);
+			toHibernate.add(eldest);
+		}
+
+		// called after updating the sets in case the dockable causes more docking events
+		toHibernate.forEach(Dockable::hibernate);
+	}
+}
@@ -24,167 +24,278 @@ package ModernDocking.internal;
 import ModernDocking.Dockable;
 import ModernDocking.DockingProperty;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 public class DockableProperties {
-    public static void configureProperties(DockableWrapper wrapper, Map<String, String> properties) {
-        Dockable dockable = wrapper.getDockable();
+    private static final String NO_DEFAULT_VALUE = "__no_default_value__";
 
-        // remove any existing properties
-        for (String key : wrapper.getProperties().keySet()) {
-            wrapper.removeProperty(key);
+    // the docking property fields of each dockable class, including inherited fields. found once per class
+    private static final ClassValue<List<PropertyField>> propertyFields = new ClassValue<List<PropertyField>>() {
+        @Override
+        protected List<PropertyField> computeValue(Class<?> type) {
+            return findPropertyFields(type);
         }
+    };
 
-        // add all properties to the wrapper
-        for (String key : properties.keySet()) {
-            wrapper.setProperty(key, properties.get(key));
-        }
+    private enum Kind {
+        BYTE, SHORT, INT, LONG, FLOAT, DOUBLE, CHAR, BOOLEAN, STRING, ENUM, UNSUPPORTED
+    }
 
-        List<Field> dockingPropFields = Arrays.stream(dockable.getClass().getDeclaredFields())
-                .filter(field -> field.getAnnotation(DockingProperty.class) != null)
-                .collect(Collectors.toList());
+    /**
+     * A single field with the DockingProperty annotation. The getter and setter are adapted to exact types
+     * so that primitives are read and written without boxing. Static fields are accessed without the dockable.
+     * Final fields can't be written, they only have a getter.
+     */
+    private static class PropertyField {
+        private final DockingProperty property;
+        private final Class<?> type;
+        private final Kind kind;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
 
-        for (Field field : dockingPropFields) {
-            try {
-                // make sure we can access the field if it is private/protected. only try this if we're sure we can't already access it
-                // because it may result in an IllegalAccessException for trying
-                boolean isAccessible = field.isAccessible();
-                boolean isPublic = (field.getModifiers() & Modifier.PUBLIC) != 0;;
-                // if (!field.canAccess(dockable)) {
-                if (!isAccessible || !isPublic) {
-                    field.setAccessible(true);
-                }
+        private PropertyField(Field field, DockingProperty property) throws IllegalAccessException {
+            this.property = property;
+            this.type = field.getType();
+            this.kind = kindOf(type);
 
-                // grab the property and store the value by its name
-                DockingProperty property = field.getAnnotation(DockingProperty.class);
+            // make sure we can access the field if it is private/protected
+            field.setAccessible(true);
 
-                if (properties.containsKey(property.name())) {
-                    setProperty(dockable, field, properties.get(property.name()));
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
 
-                    // remove the property from the wrapper as it is more specific than the static props
-                    wrapper.removeProperty(property.name());
-                }
-                else if (!Objects.equals(property.defaultValue(), "__no_default_value__")) {
-                    setProperty(dockable, field, property.defaultValue());
+            Class<?> handleType = kind == Kind.ENUM ? Enum.class : type;
 
-                    // remove the property from the wrapper as it is more specific than the static props
-                    wrapper.removeProperty(property.name());
-                }
-            } catch (IllegalAccessException | SecurityException e) {
-                e.printStackTrace();
-            }
-        }
+            boolean isStatic = Modifier.isStatic(field.getModifiers());
 
-        dockable.updateProperties();
-    }
+            MethodHandle fieldGetter = lookup.unreflectGetter(field);
 
-    public static Map<String, String> saveProperties(DockableWrapper wrapper) {
-        Dockable dockable = wrapper.getDockable();
+            if (isStatic) {
+                fieldGetter = MethodHandles.dropArguments(fieldGetter, 0, Dockable.class);
+            }
+            getter = fieldGetter.asType(MethodType.methodType(handleType, Dockable.class));
 
-        Map<String, String> properties = new HashMap<>(wrapper.getProperties());
+            // final fields are saved with the layout, but not restored
+            if (Modifier.isFinal(field.getModifiers())) {
+                setter = null;
+                return;
+            }
 
-        List<Field> dockingPropFields = Arrays.stream(dockable.getClass().getDeclaredFields())
-                .filter(field -> field.getAnnotation(DockingProperty.class) != null)
-                .collect(Collectors.toList());
+            MethodHandle fieldSetter = lookup.unreflectSetter(field);
 
-        for (Field field : dockingPropFields) {
-            try {
-                // make sure we can access the field if it is private/protected
-                field.setAccessible(true);
+            if (isStatic) {
+                fieldSetter = MethodHandles.dropArguments(fieldSetter, 0, Dockable.class);
+            }
+            setter = fieldSetter.asType(MethodType.methodType(void.class, Dockable.class, handleType));
+        }
 
-                // grab the property and store the value by its name
-                DockingProperty property = field.getAnnotation(DockingProperty.class);
+        private boolean isSettable() {
+            return setter != null;
+        }
 
-                properties.put(property.name(), getProperty(wrapper, field));
-            }
-            catch (IllegalAccessException ignore) {
+        private String get(Dockable dockable) throws Throwable {
+            switch (kind) {
+                case BYTE: return Byte.toString((byte) getter.invokeExact(dockable));
+                case SHORT: return Short.toString((short) getter.invokeExact(dockable));
+                case INT: return Integer.toString((int) getter.invokeExact(dockable));
+                case LONG: return Long.toString((long) getter.invokeExact(dockable));
+                case FLOAT: return Float.toString((float) getter.invokeExact(dockable));
+                case DOUBLE: return Double.toString((double) getter.invokeExact(dockable));
+                case CHAR: return Character.toString((char) getter.invokeExact(dockable));
+                case BOOLEAN: return Boolean.toString((boolean) getter.invokeExact(dockable));
+                case STRING: return (String) getter.invokeExact(dockable);
+                case ENUM: {
+                    // enums are stored by name so that reordering the constants doesn't break existing layouts
+                    Enum<?> value = (Enum<?>) getter.invokeExact(dockable);
+                    return value != null ? value.name() : null;
+                }
+                default:
+                    throw new RuntimeException("Unsupported property type");
             }
         }
 
-        return properties;
+        private void set(Dockable dockable, String value) throws Throwable {
+            switch (kind) {
+                case BYTE: setter.invokeExact(dockable, Byte.parseByte(value)); break;
+                case SHORT: setter.invokeExact(dockable, Short.parseShort(value)); break;
+                case INT: setter.invokeExact(dockable, Integer.parseInt(value)); break;
+                case LONG: setter.invokeExact(dockable, Long.parseLong(value)); break;
+                case FLOAT: setter.invokeExact(dockable, Float.parseFloat(value)); break;
+                case DOUBLE: setter.invokeExact(dockable, Double.parseDouble(value)); break;
+                case CHAR: setter.invokeExact(dockable, value.charAt(0)); break;
+                case BOOLEAN: setter.invokeExact(dockable, Boolean.parseBoolean(value)); break;
+                case STRING: setter.invokeExact(dockable, value); break;
+                case ENUM: setter.invokeExact(dockable, enumValue(type, value)); break;
+                default:
+                    throw new RuntimeException("Unsupported property type");
+            }
+        }
     }
 
-    private static String getProperty(DockableWrapper wrapper, Field field) throws IllegalAccessException {
-        Dockable dockable = wrapper.getDockable();
-
-        Class<?> type = field.getType();
-
+    private static Kind kindOf(Class<?> type) {
         if (type == byte.class) {
-            return Byte.toString((Byte) field.get(dockable));
+            return Kind.BYTE;
         }
         else if (type == short.class) {
-            return Short.toString((Short) field.get(dockable));
+            return Kind.SHORT;
         }
         else if (type == int.class) {
-            return Integer.toString((Integer) field.get(dockable));
+            return Kind.INT;
         }
         else if (type == long.class) {
-            return Long.toString((Long) field.get(dockable));
+            return Kind.LONG;
         }
         else if (type == float.class) {
-            return Float.toString((Float) field.get(dockable));
+            return Kind.FLOAT;
         }
         else if (type == double.class) {
-            return Double.toString((Double) field.get(dockable));
+            return Kind.DOUBLE;
         }
         else if (type == char.class) {
-            return Character.toString((Character) field.get(dockable));
+            return Kind.CHAR;
         }
         else if (type == boolean.class) {
-            return Boolean.toString((Boolean) field.get(dockable));
+            return Kind.BOOLEAN;
         }
         else if (type == String.class) {
-            return (String) field.get(dockable);
+            return Kind.STRING;
         }
-//        else if (type.isEnum()) {
-//            return Integer.toString(((Enum<?>) field.get(dockable)).ordinal());
-//            return "";
-//        }
-        else {
-            throw new RuntimeException("Unsupported property type");
+        else if (type.isEnum()) {
+            return Kind.ENUM;
         }
+        return Kind.UNSUPPORTED;
     }
 
-    private static void setProperty(Dockable dockable, Field field, String value) throws IllegalAccessException {
-        Class<?> type = field.getType();
-
-        if (type == byte.class) {
-            field.set(dockable, Byte.parseByte(value));
+    private static Enum<?> enumValue(Class<?> type, String name) {
+        if (name == null) {
+            return null;
         }
-        else if (type == short.class) {
-            field.set(dockable, Short.parseShort(value));
-        }
-        else if (type == int.class) {
-            field.set(dockable, Integer.parseInt(value));
+
+        for (Object constant : type.getEnumConstants()) {
+            if (((Enum<?>) constant).name().equals(name)) {
+                return (Enum<?>) constant;
+            }
         }
-        else if (type == long.class) {
-            field.set(dockable, Long.parseLong(value));
+        throw new IllegalArgumentException("No enum constant " + type.getName() + "." + name);
+    }
+
+    private static List<PropertyField> findPropertyFields(Class<?> type) {
+        // start with the base classes so that subclasses can override properties with the same name
+        List<Class<?>> hierarchy = new ArrayList<>();
+
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.add(0, current);
         }
-        else if (type == float.class) {
-            field.set(dockable, Float.parseFloat(value));
+
+        List<PropertyField> fields = new ArrayList<>();
+
+        for (Class<?> current : hierarchy) {
+            for (Field field : current.getDeclaredFields()) {
+                DockingProperty property = field.getAnnotation(DockingProperty.class);
+
+                if (property == null) {
+                    continue;
+                }
+
+                try {
+                    fields.add(new PropertyField(field, property));
+                }
+                catch (IllegalAccessException | RuntimeException e) {
+                    // skip just this field, the rest of the properties still work
+                    e.printStackTrace();
+                }
+            }
         }
-        else if (type == double.class) {
-            field.set(dockable, Double.parseDouble(value));
+        return Collections.unmodifiableList(fields);
+    }
+
+    public static void configureProperties(DockableWrapper wrapper, Map<String, String> properties) {
+        Dockable dockable = wrapper.getDockable();
+
+        // remove any existing properties. copy the keys, the wrapper only gives us a view of its properties
+        for (String key : new ArrayList<>(wrapper.getProperties().keySet())) {
+            wrapper.removeProperty(key);
         }
-        else if (type == char.class) {
-            field.set(dockable, value.charAt(0));
+
+        // add all properties to the wrapper
+        for (String key : properties.keySet()) {
+            wrapper.setProperty(key, properties.get(key));
         }
-        else if (type == boolean.class) {
-            field.set(dockable, Boolean.parseBoolean(value));
+
+        // remove the properties set on fields from the wrapper as they are more specific than the static props
+        setFields(dockable, properties, wrapper::removeProperty);
+
+        dockable.updateProperties();
+    }
+
+    /**
+     * Set the docking property fields of the dockable from the properties, or from their default values
+     *
+     * @param dockable Dockable to set the fields of
+     * @param properties Property values by name
+     * @param fieldSet Called with the name of each property that was set on a field
+     */
+    static void setFields(Dockable dockable, Map<String, String> properties, Consumer<String> fieldSet) {
+        for (PropertyField field : propertyFields.get(dockable.getClass())) {
+            DockingProperty property = field.property;
+
+            if (!field.isSettable()) {
+                continue;
+            }
+
+            try {
+                if (properties.containsKey(property.name())) {
+                    field.set(dockable, properties.get(property.name()));
+
+                    fieldSet.accept(property.name());
+                }
+                else if (!Objects.equals(property.defaultValue(), NO_DEFAULT_VALUE)) {
+                    field.set(dockable, property.defaultValue());
+
+                    fieldSet.accept(property.name());
+                }
+            }
+            catch (RuntimeException | Error e) {
+                throw e;
+            }
+            catch (Throwable e) {
+                e.printStackTrace();
+            }
         }
-        else if (type == String.class) {
-            field.set(dockable, value);
-        }
-//        else if (type.isEnum()) {
-//            int ordinal = Integer.parseInt(value);
-//
-//            field.set(dockable, type.getEnumConstants()[ordinal]);
-//        }
-        else {
-            throw new RuntimeException("Unsupported property type");
+    }
+
+    public static Map<String, String> saveProperties(DockableWrapper wrapper) {
+        Dockable dockable = wrapper.getDockable();
+
+        Map<String, String> properties = new HashMap<>(wrapper.getProperties());
+
+        getFields(dockable, properties);
+
+        return properties;
+    }
+
+    /**
+     * Store the values of the docking property fields of the dockable by their property names
+     *
+     * @param dockable Dockable to read the fields of
+     * @param properties Map to store the values in
+     */
+    static void getFields(Dockable dockable, Map<String, String> properties) {
+        for (PropertyField field : propertyFields.get(dockable.getClass())) {
+            try {
+                // grab the property and store the value by its name
+                properties.put(field.property.name(), field.get(dockable));
+            }
+            catch (RuntimeException | Error e) {
+                throw e;
+            }
+            catch (Throwable ignore) {
+            }
         }
     }
 }
@@ -156,6 +156,7 @@ public class DockableToolbar extends JPanel implements ComponentListener {
 				DockingListeners.fireHiddenEvent(entry.dockable);
 			}
 			else if (!entry.panel.isVisible() && isSelected) {
+				DockableHibernator.rehydrate(entry.dockable);
 				DockingListeners.fireShownEvent(entry.dockable);
 			}
 			else if (isSelected) {
@@ -166,8 +167,7 @@ public class DockableToolbar extends JPanel implements ComponentListener {
 			entry.panel.setVisible(isSelected);
 
 			if (isSelected) {
-				Color color = DockingSettings.getHighlighterSelectedBorder();
-				entry.panel.setBorder(BorderFactory.createLineBorder(color, 2));
+				entry.panel.setBorder(DockingSettings.getTheme().getSelectedBorder());
 			}
 		}
 	}
@@ -72,6 +72,8 @@ public class DockedSimplePanel extends DockingPanel {
 		this.dockable = dockable;
 		this.docking = docking;
 
+		DockableHibernator.rehydrate(dockable.getDockable());
+
 		add(displayPanel, BorderLayout.CENTER);
 	}
 
@@ -141,8 +143,11 @@ public class DockedSimplePanel extends DockingPanel {
 			split.setDividerLocation(dividerProportion);
 		}
 
-		revalidate();
-		repaint();
+		// the roots are validated once at the end of a batch
+		if (!docking.isBatching()) {
+			revalidate();
+			repaint();
+		}
 	}
 
 	@Override
@@ -154,8 +159,10 @@ public class DockedSimplePanel extends DockingPanel {
 
 			this.dockable.setParent(null);
 
-			revalidate();
-			repaint();
+			if (!docking.isBatching()) {
+				revalidate();
+				repaint();
+			}
 		}
 	}
 
@@ -170,13 +177,6 @@ public class DockedSimplePanel extends DockingPanel {
 	}
 
 	private void setNotSelectedBorder() {
-		Color color = UIManager.getColor("Component.borderColor");
-
-		setBorder(
-				BorderFactory.createCompoundBorder(
-						BorderFactory.createEmptyBorder(1, 1, 1, 1),
-						BorderFactory.createLineBorder(color, 1)
-				)
-		);
+		ActiveDockableHighlighter.setNotSelectedBorder(this);
 	}
 }
@@ -47,7 +47,15 @@ public class DockedSplitPanel extends DockingPanel implements MouseListener, Pro
 	 */
 	private DockingPanel right = null;
 
-	private final JSplitPane splitPane = new JSplitPane();
+	private final JSplitPane splitPane = new JSplitPane() {
+		@Override
+		public void doLayout() {
+			// this split now has its final size for this layout pass, and the splits inside it haven't been laid out yet
+			applyPendingDividerLocation();
+
+			super.doLayout();
+		}
+	};
 	private DockingPanel parent;
 	private final DockingAPI docking;
 	private final Window window;
@@ -57,6 +65,17 @@ public class DockedSplitPanel extends DockingPanel implements MouseListener, Pro
 	 */
 	private double lastRequestedDividerProportion;
 
+	/**
+	 * divider proportion or location to apply the next time the split is laid out with a size, -1 if there isn't one
+	 */
+	private double pendingProportion = -1;
+	private int pendingLocation = -1;
+
+	/**
+	 * the divider is being dragged. the new location is persisted once when it's released
+	 */
+	private boolean draggingDivider = false;
+
 	/**
 	 * Create a new DockedSplitPanel
 	 *
@@ -94,48 +113,18 @@ public class DockedSplitPanel extends DockingPanel implements MouseListener, Pro
 	}
 
 	/**
-	 * Set the divider location of the splitpane. Tricks are needed to properly set the position.
-	 * The position cannot be set until the JSplitPane is displayed on screen.
+	 * Set the divider location of the splitpane. The location is applied the next time the split is laid out with a size,
+	 * which is before it's painted. Splits are laid out from the outside in, so restoring a whole layout only takes one layout pass.
 	 *
 	 * @param proportion The new proportion of the splitpane
 	 */
 	public void setDividerLocation(final double proportion) {
 		lastRequestedDividerProportion = proportion;
 
-		// calling setDividerLocation on a JSplitPane that isn't visible does nothing, so we need to check if it is showing first
-		if (splitPane.isShowing()) {
-			if (splitPane.getWidth() > 0 && splitPane.getHeight() > 0) {
-				splitPane.setDividerLocation(proportion);
-			}
-			else {
-				// split hasn't been completely calculated yet, wait until componentResize
-				splitPane.addComponentListener(new ComponentAdapter() {
-					@Override
-					public void componentResized(ComponentEvent e) {
-						// remove this listener, it's a one off
-						splitPane.removeComponentListener(this);
-						// call the function again, this time it should actually set the divider location
-						setDividerLocation(proportion);
-					}
-				});
-			}
-		}
-		else {
-			// split hasn't been shown yet, wait until it's showing
-			splitPane.addHierarchyListener(new HierarchyListener() {
-				@Override
-				public void hierarchyChanged(HierarchyEvent e) {
-					boolean isShowingChangeEvent = (e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0;
-
-					if (isShowingChangeEvent && splitPane.isShowing()) {
-						// remove this listener, it's a one off
-						splitPane.removeHierarchyListener(this);
-						// call the function again, this time it might set the size or wait for componentResize
-						setDividerLocation(proportion);
-					}
-				}
-			});
-		}
+		pendingProportion = proportion;
+		pendingLocation = -1;
+
+		splitPane.revalidate();
 	}
 
 	/**
@@ -144,41 +133,33 @@ public class DockedSplitPanel extends DockingPanel implements MouseListener, Pro
 	 * @param location The new proportion of the splitpane
 	 */
 	public void setDividerLocation(final int location) {
-		if (splitPane.isShowing()) {
-			if ((splitPane.getWidth() > 0) && (splitPane.getHeight() > 0)) {
-				splitPane.setDividerLocation(location);
+		pendingLocation = location;
+		pendingProportion = -1;
 
-				docking.getAppState().persist();
-			}
-			else {
-				// split hasn't been completely calculated yet, wait until componentResize
-				splitPane.addComponentListener(new ComponentAdapter() {
-					@Override
-					public void componentResized(ComponentEvent e) {
-						// remove this listener, it's a one off
-						splitPane.removeComponentListener(this);
-						// call the function again, this time it should actually set the divider location
-						setDividerLocation(location);
-					}
-				});
-			}
+		splitPane.revalidate();
+	}
+
+	private void applyPendingDividerLocation() {
+		if (pendingProportion < 0 && pendingLocation < 0) {
+			return;
+		}
+
+		// JSplitPane ignores divider locations until it has a size, keep the location until then
+		if (splitPane.getWidth() <= 0 || splitPane.getHeight() <= 0) {
+			return;
+		}
+
+		if (pendingProportion >= 0) {
+			splitPane.setDividerLocation(pendingProportion);
 		}
 		else {
-			// split hasn't been shown yet, wait until it's showing
-			splitPane.addHierarchyListener(new HierarchyListener() {
-				@Override
-				public void hierarchyChanged(HierarchyEvent e) {
-					boolean isShowingChangeEvent = (e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0;
-
-					if (isShowingChangeEvent && splitPane.isShowing()) {
-						// remove this listener, it's a one off
-						splitPane.removeHierarchyListener(this);
-						// call the function again, this time it might set the size or wait for componentResize
-						setDividerLocation(location);
-					}
-				}
-			});
+			splitPane.setDividerLocation(pendingLocation);
+
+			docking.getAppState().persist();
 		}
+
+		pendingProportion = -1;
+		pendingLocation = -1;
 	}
 
 	/**
@@ -343,15 +324,27 @@ public class DockedSplitPanel extends DockingPanel implements MouseListener, Pro
 	public void mouseClicked(MouseEvent e) {
 		if (e.getClickCount() >= 2) {
 			setDividerLocation(splitPane.getResizeWeight());
+
+			recordDividerLocation(splitPane.getResizeWeight());
 		}
 	}
 
 	@Override
 	public void mousePressed(MouseEvent e) {
+		draggingDivider = true;
 	}
 
 	@Override
 	public void mouseReleased(MouseEvent e) {
+		draggingDivider = false;
+
+		int size = splitPane.getOrientation() == JSplitPane.HORIZONTAL_SPLIT ? splitPane.getWidth() : splitPane.getHeight();
+		int available = size - splitPane.getDividerSize();
+
+		if (available > 0) {
+			recordDividerLocation(splitPane.getDividerLocation() / (double) available);
+		}
+
 		docking.getAppState().persist();
 	}
 
@@ -363,8 +356,20 @@ public class DockedSplitPanel extends DockingPanel implements MouseListener, Pro
 	public void mouseExited(MouseEvent e) {
 	}
 
+	// the split is identified in the journal by the first dockable on each side of it
+	private void recordDividerLocation(double proportion) {
+		Dockable left = DockingJournal.firstDockable(getLeft());
+		Dockable right = DockingJournal.firstDockable(getRight());
+
+		if (left != null && right != null) {
+			DockingInternal.get(docking).getJournal().record("divider", left.getPersistentID(), right.getPersistentID(), String.valueOf(proportion));
+		}
+	}
+
 	@Override
 	public void propertyChange(PropertyChangeEvent evt) {
-		docking.getAppState().persist();
+		if (!draggingDivider) {
+			docking.getAppState().persist();
+		}
 	}
 }
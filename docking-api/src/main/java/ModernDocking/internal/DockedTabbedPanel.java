@@ -36,7 +36,9 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.IntConsumer;
 
@@ -49,9 +51,47 @@ public class DockedTabbedPanel extends DockingPanel implements ChangeListener {
 	 */
 	private final List<DockableWrapper> panels = new ArrayList<>();
 
+	/**
+	 * Index of each dockable in panels. Rebuilt on the next lookup after tabs are added or removed
+	 */
+	private Map<Dockable, Integer> tabIndexes = null;
+
+	/**
+	 * Set while inserting a tab. Inserting before the selected tab moves the selection without changing the selected dockable
+	 */
+	private boolean insertingTab = false;
+
+	/**
+	 * Whether this tabbed panel only adds the display panel of a tab once it's shown
+	 */
+	private final boolean lazyTabs = Settings.isLazyTabContentEnabled();
+
+	/**
+	 * Placeholders used as the tab component of tabs that aren't showing their display panel
+	 */
+	private final Map<DockableWrapper, JComponent> placeholders = new IdentityHashMap<>();
+
+	/**
+	 * Detaches the display panels of hidden tabs once the selection hasn't changed for a while
+	 */
+	private Timer detachTimer = null;
+
 	private FloatListener floatListener;
 
-	private final CustomTabbedPane tabs = new CustomTabbedPane();
+	private final CustomTabbedPane tabs = new CustomTabbedPane() {
+		@Override
+		public void setSelectedIndex(int index) {
+			// wake up the dockable and swap in its display panel before it's shown
+			if (index != getSelectedIndex() && index >= 0 && index < panels.size()) {
+				DockableHibernator.rehydrate(panels.get(index).getDockable());
+
+				if (lazyTabs) {
+					realizeTab(index);
+				}
+			}
+			super.setSelectedIndex(index);
+		}
+	};
 	private final DockingAPI docking;
 
 	/**
@@ -100,6 +140,16 @@ public class DockedTabbedPanel extends DockingPanel implements ChangeListener {
 
 		add(tabs, BorderLayout.CENTER);
 
+		if (lazyTabs) {
+			if (Settings.getLazyTabDetachDelay() > 0) {
+				detachTimer = new Timer(Settings.getLazyTabDetachDelay(), e -> detachHiddenTabs());
+				detachTimer.setRepeats(false);
+			}
+
+			// always listening, the tab has to be realized even when it's selected before this panel is displayed
+			tabs.addChangeListener(e -> selectedTabChanged());
+		}
+
 		addPanel(dockable);
 	}
 
@@ -171,6 +221,10 @@ public class DockedTabbedPanel extends DockingPanel implements ChangeListener {
 	public void removeNotify() {
 		tabs.removeChangeListener(this);
 
+		if (detachTimer != null) {
+			detachTimer.stop();
+		}
+
 		super.removeNotify();
 	}
 
@@ -180,24 +234,122 @@ public class DockedTabbedPanel extends DockingPanel implements ChangeListener {
 	 * @param dockable The dockable to add
 	 */
 	public void addPanel(DockableWrapper dockable) {
-		panels.add(dockable);
-		tabs.add(dockable.getDockable().getTabText(), dockable.getDisplayPanel());
+		insertPanel(dockable, panels.size());
+
+		tabs.setSelectedIndex(tabs.getTabCount() - 1);
+		selectedTab = tabs.getSelectedIndex();
+	}
+
+	/**
+	 * Add several panels to the end of this tabbed panel. The selection is only changed once, after all the panels are added.
+	 *
+	 * @param dockables The dockables to add
+	 * @param selectedIndex The index of the tab to select afterwards, or -1 to select the last tab
+	 */
+	public void addPanels(List<DockableWrapper> dockables, int selectedIndex) {
+		for (DockableWrapper dockable : dockables) {
+			insertPanel(dockable, panels.size());
+		}
+
+		if (selectedIndex < 0 || selectedIndex >= tabs.getTabCount()) {
+			selectedIndex = tabs.getTabCount() - 1;
+		}
+		tabs.setSelectedIndex(selectedIndex);
+		selectedTab = tabs.getSelectedIndex();
+	}
+
+	// insert the tab directly at the index, without changing the selected dockable
+	private void insertPanel(DockableWrapper dockable, int index) {
+		panels.add(index, dockable);
+		tabIndexes = null;
+
+		JComponent content = lazyTabs ? placeholderFor(dockable) : dockable.getDisplayPanel();
+
+		insertingTab = true;
+
+		try {
+			tabs.insertTab(dockable.getDockable().getTabText(), dockable.getDockable().getIcon(), content, dockable.getDockable().getTabTooltip(), index);
+		}
+		finally {
+			insertingTab = false;
+		}
 
 		// if any of the dockables use top tab position, switch this tabbedpanel to top tabs
 		if (tabs.getTabPlacement() != SwingConstants.TOP && dockable.getDockable().getTabPosition() == SwingConstants.TOP) {
 			tabs.setTabPlacement(SwingConstants.TOP);
 		}
 
-		tabs.setToolTipTextAt(tabs.getTabCount() - 1, dockable.getDockable().getTabTooltip());
-		tabs.setIconAt(tabs.getTabCount() - 1, dockable.getDockable().getIcon());
-		tabs.setSelectedIndex(tabs.getTabCount() - 1);
-		selectedTab = tabs.getSelectedIndex();
-
 		if (Settings.alwaysDisplayTabsMode(dockable.getDockable()) && dockable.getDockable().isClosable()) {
 			dockable.getDisplayPanel().putClientProperty("JTabbedPane.tabClosable", true);
+
+			if (lazyTabs) {
+				content.putClientProperty("JTabbedPane.tabClosable", true);
+			}
 		}
 
 		dockable.setParent(this);
+
+		// insertTab doesn't change the selection if a tab was already selected
+		if (lazyTabs && index == tabs.getSelectedIndex()) {
+			realizeTab(index);
+		}
+	}
+
+	private JComponent placeholderFor(DockableWrapper dockable) {
+		return placeholders.computeIfAbsent(dockable, wrapper -> new TabPlaceholder());
+	}
+
+	private void selectedTabChanged() {
+		realizeTab(tabs.getSelectedIndex());
+
+		if (detachTimer != null) {
+			detachTimer.restart();
+		}
+	}
+
+	// swap the placeholder of the tab for its display panel
+	private void realizeTab(int index) {
+		if (index < 0 || index >= panels.size()) {
+			return;
+		}
+		DisplayPanel displayPanel = panels.get(index).getDisplayPanel();
+
+		if (tabs.getComponentAt(index) != displayPanel) {
+			tabs.setComponentAt(index, displayPanel);
+		}
+	}
+
+	// swap the display panels of all the hidden tabs back to their placeholders
+	private void detachHiddenTabs() {
+		// the display panels might be part of the drag
+		if (FloatListener.isFloating()) {
+			detachTimer.restart();
+			return;
+		}
+
+		int selectedIndex = tabs.getSelectedIndex();
+
+		for (int i = 0; i < panels.size(); i++) {
+			DockableWrapper panel = panels.get(i);
+
+			if (i != selectedIndex && tabs.getComponentAt(i) == panel.getDisplayPanel()) {
+				tabs.setComponentAt(i, placeholderFor(panel));
+			}
+		}
+	}
+
+	// find the index of the dockable in panels, -1 if it isn't in this tabbed panel
+	private int indexOf(Dockable dockable) {
+		if (tabIndexes == null) {
+			tabIndexes = new IdentityHashMap<>();
+
+			for (int i = 0; i < panels.size(); i++) {
+				tabIndexes.put(panels.get(i).getDockable(), i);
+			}
+		}
+		Integer index = tabIndexes.get(dockable);
+
+		return index != null ? index : -1;
 	}
 
 	/**
@@ -206,11 +358,13 @@ public class DockedTabbedPanel extends DockingPanel implements ChangeListener {
 	 * @param dockable The dockable to remove
 	 */
 	public void removePanel(DockableWrapper dockable) {
-		if (panels.contains(dockable)) {
-			panels.indexOf(dockable);
+		int index = indexOf(dockable.getDockable());
 
-			tabs.remove(dockable.getDisplayPanel());
-			panels.remove(dockable);
+		if (index != -1 && panels.get(index) == dockable) {
+			tabs.removeTabAt(index);
+			panels.remove(index);
+			placeholders.remove(dockable);
+			tabIndexes = null;
 
 			dockable.setParent(null);
 		}
@@ -271,28 +425,47 @@ public class DockedTabbedPanel extends DockingPanel implements ChangeListener {
 			split.setDividerLocation(dividerProportion);
 		}
 
-		revalidate();
-		repaint();
+		// the roots are validated once at the end of a batch
+		if (!docking.isBatching()) {
+			revalidate();
+			repaint();
+		}
 	}
 
 	public void dockAtIndex(Dockable dockable, int index) {
 		DockableWrapper wrapper = DockingInternal.get(docking).getWrapper(dockable);
 		wrapper.setWindow(panels.get(0).getWindow());
 
-		addPanel(DockingInternal.get(docking).getWrapper(dockable));
+		// any other dockable in this panel is used to find it again when replaying the journal
+		Dockable target = panels.get(0).getDockable();
+
+		DockingJournal journal = DockingInternal.get(docking).getJournal();
+		journal.begin();
 
-		if (index != -1) {
-			int lastIndex = tabs.getTabCount() - 1;
+		try {
+			if (index == -1) {
+				addPanel(wrapper);
+			}
+			else {
+				index = Math.min(index, panels.size());
 
-			for (int i = index; i < lastIndex; i++) {
-				DockableWrapper panel = panels.get(index);
+				insertPanel(wrapper, index);
 
-				removePanel(panel);
-				addPanel(panel);
+				tabs.setSelectedIndex(index);
 			}
+		}
+		finally {
+			journal.end();
+		}
 
-			tabs.setSelectedIndex(index);
+		if (target != dockable) {
+			journal.record("dock-tab", dockable.getPersistentID(), target.getPersistentID(), String.valueOf(index));
 		}
+		else {
+			journal.invalidate();
+		}
+
+		docking.getAppState().persist();
 	}
 
 	@Override
@@ -319,14 +492,7 @@ public class DockedTabbedPanel extends DockingPanel implements ChangeListener {
 	}
 
 	private void setNotSelectedBorder() {
-		Color color = UIManager.getColor("Component.borderColor");
-
-		setBorder(
-				BorderFactory.createCompoundBorder(
-						BorderFactory.createEmptyBorder(1, 1, 1, 1),
-						BorderFactory.createLineBorder(color, 1)
-				)
-		);
+		ActiveDockableHighlighter.setNotSelectedBorder(this);
 	}
 
 	/**
@@ -335,20 +501,20 @@ public class DockedTabbedPanel extends DockingPanel implements ChangeListener {
 	 * @param dockable Dockable to bring to front
 	 */
 	public void bringToFront(Dockable dockable) {
-		for (int i = 0; i < panels.size(); i++) {
-			DockableWrapper panel = panels.get(i);
+		int i = indexOf(dockable);
 
-			if (panel.getDockable() == dockable) {
-				if (tabs.getSelectedIndex() != i) {
-					if (tabs.getSelectedIndex() != -1) {
-						DockingListeners.fireHiddenEvent(panels.get(tabs.getSelectedIndex()).getDockable());
-					}
-					DockingListeners.fireShownEvent(panels.get(i).getDockable());
-				}
-				tabs.setSelectedIndex(i);
-				selectedTab = tabs.getSelectedIndex();
+		if (i == -1) {
+			return;
+		}
+
+		if (tabs.getSelectedIndex() != i) {
+			if (tabs.getSelectedIndex() != -1) {
+				DockingListeners.fireHiddenEvent(panels.get(tabs.getSelectedIndex()).getDockable());
 			}
+			DockingListeners.fireShownEvent(panels.get(i).getDockable());
 		}
+		tabs.setSelectedIndex(i);
+		selectedTab = tabs.getSelectedIndex();
 	}
 
 	/**
@@ -366,9 +532,20 @@ public class DockedTabbedPanel extends DockingPanel implements ChangeListener {
 
 	@Override
 	public void stateChanged(ChangeEvent e) {
-		docking.getAppState().persist();
+		// the selected tab only moved over to make room for the inserted tab
+		if (insertingTab) {
+			selectedTab = tabs.getSelectedIndex();
+			return;
+		}
+
+		// change listeners are called in reverse order, this can run before selectedTabChanged. the display panel
+		// has to be in the tab before listeners are told that the dockable is shown
+		if (lazyTabs) {
+			realizeTab(tabs.getSelectedIndex());
+		}
 
 		if (tabs.getSelectedIndex() == -1) {
+			docking.getAppState().persist();
 			return;
 		}
 
@@ -378,8 +555,14 @@ public class DockedTabbedPanel extends DockingPanel implements ChangeListener {
 		selectedTab = tabs.getSelectedIndex();
 
 		if (selectedTab != -1) {
-			DockingListeners.fireShownEvent(panels.get(selectedTab).getDockable());
+			Dockable dockable = panels.get(selectedTab).getDockable();
+
+			DockingListeners.fireShownEvent(dockable);
+
+			DockingInternal.get(docking).getJournal().record("select", dockable.getPersistentID());
 		}
+
+		docking.getAppState().persist();
 	}
 
 	public boolean isUsingTopTabs() {
@@ -391,31 +574,26 @@ public class DockedTabbedPanel extends DockingPanel implements ChangeListener {
 	}
 
 	public Component getTabForDockable(DockableWrapper wrapper) {
-		for (int i = 0; i < panels.size(); i++) {
-			DockableWrapper panel = panels.get(i);
+		int i = indexOf(wrapper.getDockable());
 
-			if (panel.getDockable() == wrapper.getDockable()) {
-				return tabs.getTabComponentAt(i);
-			}
-		}
-		return null;
+		return i != -1 ? tabs.getTabComponentAt(i) : null;
 	}
 
 	public void updateTabInfo(Dockable dockable) {
-		for (int i = 0; i < panels.size(); i++) {
-			DockableWrapper panel = panels.get(i);
+		int i = indexOf(dockable);
 
-			if (panel.getDockable() == dockable) {
-				tabs.setTitleAt(i, dockable.getTabText());
-				tabs.setToolTipTextAt(i, dockable.getTabTooltip());
+		if (i == -1) {
+			return;
+		}
 
-				Component tabComponent = tabs.getTabComponentAt(i);
+		tabs.setTitleAt(i, dockable.getTabText());
+		tabs.setToolTipTextAt(i, dockable.getTabTooltip());
 
-				if (tabComponent instanceof JLabel) {
-					((JLabel) tabComponent).setText(dockable.getTabText());
-					((JLabel) tabComponent).setToolTipText(dockable.getTabTooltip());
-				}
-			}
+		Component tabComponent = tabs.getTabComponentAt(i);
+
+		if (tabComponent instanceof JLabel) {
+			((JLabel) tabComponent).setText(dockable.getTabText());
+			((JLabel) tabComponent).setToolTipText(dockable.getTabTooltip());
 		}
 	}
 
@@ -423,10 +601,20 @@ public class DockedTabbedPanel extends DockingPanel implements ChangeListener {
 		return tabs.getTargetTabIndex(point, false);
 	}
 
-	public boolean isDraggingFromTabGutter(Point point) {
+	public boolean isDraggingFromTabGutter(Point mousePosOnScreen) {
+		Point point = new Point(mousePosOnScreen);
+		SwingUtilities.convertPointFromScreen(point, tabs);
+
 		Rectangle boundsAt = tabs.getBoundsAt(0);
 
 		return boundsAt.y <= point.y && (boundsAt.y + boundsAt.height) >= point.y;
 
 	}
+
+	/**
+	 * Empty component shown in place of a tab that hasn't been displayed yet
+	 */
+	private static class TabPlaceholder extends JComponent {
+		private static final long serialVersionUID = 1L;
+	}
 }
@@ -54,20 +54,13 @@ public class DockingComponentUtils {
 	}
 
 	/**
-	 * search for a root panel on the screen at a specific position
+	 * search for the topmost root panel on the screen at a specific position
 	 *
 	 * @param screenPos The screen position to search at
 	 * @return The window at screenPos. null if not found.
 	 */
 	public static Window findRootAtScreenPos(DockingAPI docking, Point screenPos) {
-		for (Window window : docking.getRootPanels().keySet()) {
-			Rectangle bounds = new Rectangle(window.getX(), window.getY(), window.getWidth(), window.getHeight());
-
-			if (bounds.contains(screenPos) && window.isVisible()) {
-				return window;
-			}
-		}
-		return null;
+		return DockingInternal.get(docking).getWindowRegistry().findTopmostAt(screenPos);
 	}
 
 	/**
@@ -131,57 +124,11 @@ public class DockingComponentUtils {
 	 * @return Dockable under the screen position, or null if none is found
 	 */
 	public static Dockable findDockableAtScreenPos(Point screenPos, Window window) {
-		// window is null so there's no dockable to find
-		if (window == null) {
-			return null;
-		}
-
-		Point framePoint = new Point(screenPos);
-		SwingUtilities.convertPointFromScreen(framePoint, window);
-
-		Component component = SwingUtilities.getDeepestComponentAt(window, framePoint.x, framePoint.y);
-
-		// no component found at the position, return null
-		if (component == null) {
-			return null;
-		}
-
-		while (!(component instanceof DisplayPanel) && component.getParent() != null) {
-			component = component.getParent();
-		}
-
-		// didn't find a Dockable, return null
-		if (!(component instanceof DisplayPanel)) {
-			return null;
-		}
-		return ((DisplayPanel) component).getWrapper().getDockable();
+		return DockingHitTestIndex.hitTest(screenPos, window).getDockable();
 	}
 
 	public static CustomTabbedPane findTabbedPaneAtPos(Point screenPos, Window window) {
-		// window is null so there's no dockable to find
-		if (window == null) {
-			return null;
-		}
-
-		Point framePoint = new Point(screenPos);
-		SwingUtilities.convertPointFromScreen(framePoint, window);
-
-		Component component = SwingUtilities.getDeepestComponentAt(window, framePoint.x, framePoint.y);
-
-		// no component found at the position, return null
-		if (component == null) {
-			return null;
-		}
-
-		while (!(component instanceof CustomTabbedPane) && component.getParent() != null) {
-			component = component.getParent();
-		}
-
-		// didn't find a Dockable, return null
-		if (!(component instanceof CustomTabbedPane)) {
-			return null;
-		}
-		return (CustomTabbedPane) component;
+		return DockingHitTestIndex.hitTest(screenPos, window).getTabbedPane();
 	}
 
 	/**
@@ -209,30 +156,18 @@ public class DockingComponentUtils {
 	 * @return DockingPanel under the screen position, or null if none is found
 	 */
 	public static DockingPanel findDockingPanelAtScreenPos(Point screenPos, Window window) {
-		// no window found at the location, return null
-		if (window == null) {
-			return null;
-		}
-
-		Point framePoint = new Point(screenPos);
-		SwingUtilities.convertPointFromScreen(framePoint, window);
-
-		Component component = SwingUtilities.getDeepestComponentAt(window, framePoint.x, framePoint.y);
-
-		// no component found at the position, return null
-		if (component == null) {
-			return null;
-		}
-
-		while (!(component instanceof DockingPanel) && component.getParent() != null) {
-			component = component.getParent();
-		}
+		return DockingHitTestIndex.hitTest(screenPos, window).getDockingPanel();
+	}
 
-		// didn't find a Dockable, return null
-		if (!(component instanceof DockingPanel)) {
-			return null;
-		}
-		return (DockingPanel) component;
+	/**
+	 * find the dockable, docking panel and tabbed pane at a given screen position with a single lookup
+	 *
+	 * @param screenPos Screen position to check
+	 * @param window The window to check
+	 * @return The components at the position
+	 */
+	public static DockingHitTestIndex.Hit hitTest(Point screenPos, Window window) {
+		return DockingHitTestIndex.hitTest(screenPos, window);
 	}
 
 	/**
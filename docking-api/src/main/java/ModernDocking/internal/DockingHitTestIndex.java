@@ -0,0 +1,327 @@
+/*
+Copyright (c) 2024 Andrew Auclair
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package ModernDocking.internal;
+
+import ModernDocking.Dockable;
+import ModernDocking.api.RootDockingPanelAPI;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentEvent;
+import java.awt.event.ComponentListener;
+import java.awt.event.ContainerEvent;
+import java.awt.event.ContainerListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flat index of the DockingPanel, DisplayPanel and CustomTabbedPane bounds in a docking window, used to answer screen
+ * position queries without walking the component tree on every mouse event.
+ * <p>
+ * Components are stored in reverse z-order with their bounds relative to the window, clipped to their parents.
+ * The children of the JLayeredPane are stored as well, so that popups and other layers on top of the docking
+ * components hide them. Moving the window doesn't change any of the stored bounds. The index listens to the
+ * containers between the window and its display panels. Any of them being shown, hidden, moved, resized, or having
+ * children added or removed marks the index as out of date, and it is rebuilt on the next query.
+ * <p>
+ * Indexes are created when a root is registered and removed when it's deregistered.
+ */
+public class DockingHitTestIndex {
+	/**
+	 * Result of a hit test. Contains the closest DisplayPanel, DockingPanel and CustomTabbedPane above the
+	 * deepest component at the position.
+	 */
+	public static class Hit {
+		private final DisplayPanel displayPanel;
+		private final DockingPanel dockingPanel;
+		private final CustomTabbedPane tabbedPane;
+
+		private Hit(DisplayPanel displayPanel, DockingPanel dockingPanel, CustomTabbedPane tabbedPane) {
+			this.displayPanel = displayPanel;
+			this.dockingPanel = dockingPanel;
+			this.tabbedPane = tabbedPane;
+		}
+
+		/**
+		 * @return The dockable at the position, or null
+		 */
+		public Dockable getDockable() {
+			return displayPanel == null ? null : displayPanel.getWrapper().getDockable();
+		}
+
+		/**
+		 * @return The docking panel at the position, or null
+		 */
+		public DockingPanel getDockingPanel() {
+			return dockingPanel;
+		}
+
+		/**
+		 * @return The tabbed pane at the position, or null
+		 */
+		public CustomTabbedPane getTabbedPane() {
+			return tabbedPane;
+		}
+	}
+
+	private static final Hit NO_HIT = new Hit(null, null, null);
+
+	private static final Map<Window, DockingHitTestIndex> indexes = new HashMap<>();
+
+	private final RootDockingPanelAPI root;
+	private final Invalidator invalidator = new Invalidator();
+	// components the invalidator has been added to, removed again when the index is rebuilt or deregistered
+	private final List<Component> listenedTo = new ArrayList<>();
+	private boolean valid = false;
+
+	private int size = 0;
+	private Component[] components = new Component[64];
+	private int[] parents = new int[64];
+	// x, y, width, height of each component, relative to the window
+	private int[] bounds = new int[64 * 4];
+
+	private DockingHitTestIndex(RootDockingPanelAPI root) {
+		this.root = root;
+	}
+
+	/**
+	 * Start indexing a docking window
+	 *
+	 * @param window The window of the root
+	 * @param root The root panel of the window
+	 */
+	public static void register(Window window, RootDockingPanelAPI root) {
+		deregister(window);
+
+		indexes.put(window, new DockingHitTestIndex(root));
+	}
+
+	/**
+	 * Stop indexing a docking window and release the components in its index
+	 *
+	 * @param window The window to remove
+	 */
+	public static void deregister(Window window) {
+		DockingHitTestIndex index = indexes.remove(window);
+
+		if (index != null) {
+			index.clear();
+		}
+	}
+
+	/**
+	 * Hit test a screen position in a window
+	 *
+	 * @param screenPos Position on screen
+	 * @param window The window to check
+	 * @return The components under the position. Never null, the fields are null if nothing was found or the window isn't a docking window
+	 */
+	public static Hit hitTest(Point screenPos, Window window) {
+		DockingHitTestIndex index = window == null ? null : indexes.get(window);
+
+		if (index == null) {
+			return NO_HIT;
+		}
+		return index.query(screenPos, window);
+	}
+
+	/**
+	 * Mark all indexes as out of date
+	 */
+	public static void invalidate() {
+		indexes.values().forEach(index -> index.valid = false);
+	}
+
+	private Hit query(Point screenPos, Window window) {
+		if (!valid) {
+			rebuild(window);
+		}
+
+		Point point = new Point(screenPos);
+		SwingUtilities.convertPointFromScreen(point, window);
+
+		int hit = -1;
+
+		for (int i = size - 1; i >= 0; i--) {
+			int offset = i * 4;
+
+			if (point.x >= bounds[offset] && point.y >= bounds[offset + 1] &&
+					point.x < bounds[offset] + bounds[offset + 2] && point.y < bounds[offset + 1] + bounds[offset + 3]) {
+				hit = i;
+				break;
+			}
+		}
+
+		if (hit == -1) {
+			return NO_HIT;
+		}
+
+		DisplayPanel displayPanel = null;
+		DockingPanel dockingPanel = null;
+		CustomTabbedPane tabbedPane = null;
+
+		for (int i = hit; i != -1; i = parents[i]) {
+			Component component = components[i];
+
+			if (displayPanel == null && component instanceof DisplayPanel) {
+				displayPanel = (DisplayPanel) component;
+			}
+			if (dockingPanel == null && component instanceof DockingPanel) {
+				dockingPanel = (DockingPanel) component;
+			}
+			if (tabbedPane == null && component instanceof CustomTabbedPane) {
+				tabbedPane = (CustomTabbedPane) component;
+			}
+		}
+		return new Hit(displayPanel, dockingPanel, tabbedPane);
+	}
+
+	private void clear() {
+		for (Component component : listenedTo) {
+			component.removeComponentListener(invalidator);
+
+			if (component instanceof Container) {
+				((Container) component).removeContainerListener(invalidator);
+			}
+		}
+		listenedTo.clear();
+
+		Arrays.fill(components, 0, size, null);
+		size = 0;
+		valid = false;
+	}
+
+	private void rebuild(Window window) {
+		clear();
+
+		if (window.isShowing()) {
+			add(window, -1, 0, 0, new Rectangle(0, 0, window.getWidth(), window.getHeight()), false);
+		}
+		valid = true;
+	}
+
+	private void add(Component component, int parent, int x, int y, Rectangle clip, boolean inRoot) {
+		Rectangle rect = new Rectangle(x, y, component.getWidth(), component.getHeight()).intersection(clip);
+
+		// nothing in this component can be hit
+		if (rect.isEmpty()) {
+			return;
+		}
+
+		inRoot = inRoot || component == root;
+
+		int index = parent;
+
+		if (component instanceof DockingPanel || component instanceof DisplayPanel || component instanceof CustomTabbedPane
+				|| component.getParent() instanceof JLayeredPane) {
+			index = append(component, parent, rect);
+		}
+
+		// only look inside the root, the containers leading to it and unpinned panels. nothing inside a display panel is part of the layout
+		boolean descend = component instanceof Container && !(component instanceof DisplayPanel)
+				&& (inRoot || component instanceof DockedUnpinnedPanel || SwingUtilities.isDescendingFrom(root, component));
+
+		if (!descend) {
+			return;
+		}
+
+		Container container = (Container) component;
+
+		container.addContainerListener(invalidator);
+		listenedTo.add(container);
+
+		Component[] children = container.getComponents();
+
+		// lower indexes are drawn on top, add them last so they're found first
+		for (int i = children.length - 1; i >= 0; i--) {
+			Component child = children[i];
+
+			if (child instanceof Window) {
+				continue;
+			}
+
+			// hidden children are listened to as well, so we know when they're shown
+			child.addComponentListener(invalidator);
+			listenedTo.add(child);
+
+			if (child.isVisible()) {
+				add(child, index, x + child.getX(), y + child.getY(), rect, inRoot);
+			}
+		}
+	}
+
+	private int append(Component component, int parent, Rectangle rect) {
+		if (size == components.length) {
+			components = Arrays.copyOf(components, size * 2);
+			parents = Arrays.copyOf(parents, size * 2);
+			bounds = Arrays.copyOf(bounds, size * 2 * 4);
+		}
+
+		int index = size++;
+		components[index] = component;
+		parents[index] = parent;
+		bounds[index * 4] = rect.x;
+		bounds[index * 4 + 1] = rect.y;
+		bounds[index * 4 + 2] = rect.width;
+		bounds[index * 4 + 3] = rect.height;
+
+		return index;
+	}
+
+	/**
+	 * Marks the index out of date when anything it was built from changes
+	 */
+	private class Invalidator implements ComponentListener, ContainerListener {
+		@Override
+		public void componentResized(ComponentEvent e) {
+			valid = false;
+		}
+
+		@Override
+		public void componentMoved(ComponentEvent e) {
+			valid = false;
+		}
+
+		@Override
+		public void componentShown(ComponentEvent e) {
+			valid = false;
+		}
+
+		@Override
+		public void componentHidden(ComponentEvent e) {
+			valid = false;
+		}
+
+		@Override
+		public void componentAdded(ContainerEvent e) {
+			valid = false;
+		}
+
+		@Override
+		public void componentRemoved(ContainerEvent e) {
+			valid = false;
+		}
+	}
+}
@@ -45,12 +45,17 @@ import java.util.stream.Collectors;
 public class DockingInternal {
 	private final Map<String, DockableWrapper> dockables = new HashMap<>();
 	private final DockingAPI docking;
+	private final DockingJournal journal;
+	private final DockingWindowRegistry windowRegistry = new DockingWindowRegistry();
 
 	private static final Map<DockingAPI, DockingInternal> internals = new HashMap<>();
 
 	public DockingInternal(DockingAPI docking) {
 		this.docking = docking;
+		this.journal = new DockingJournal(docking);
 		internals.put(docking, this);
+
+		DockableHibernator.install();
 	}
 
 	public static DockingInternal get(DockingAPI docking) {
@@ -61,6 +66,41 @@ public class DockingInternal {
 		internals.remove(docking);
 	}
 
+	/**
+	 * Find the docking instance that a dockable is registered with
+	 *
+	 * @param dockable The dockable to search for
+	 * @return The docking instance, or null if the dockable isn't registered
+	 */
+	public static DockingAPI findDocking(Dockable dockable) {
+		for (DockingInternal internal : internals.values()) {
+			DockableWrapper wrapper = internal.dockables.get(dockable.getPersistentID());
+
+			if (wrapper != null && wrapper.getDockable() == dockable) {
+				return internal.docking;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get the journal of docking operations for this docking instance
+	 *
+	 * @return The docking journal
+	 */
+	public DockingJournal getJournal() {
+		return journal;
+	}
+
+	/**
+	 * Get the registry that tracks the stacking order of the docking windows
+	 *
+	 * @return The window registry
+	 */
+	public DockingWindowRegistry getWindowRegistry() {
+		return windowRegistry;
+	}
+
 	/**
 	 * Get access to the registered dockables
 	 *
@@ -95,6 +135,8 @@ public class DockingInternal {
 	public void deregisterDockable(Dockable dockable) {
 		getWrapper(dockable).removeListeners();
 		dockables.remove(dockable.getPersistentID());
+
+		DockableHibernator.forget(dockable);
 	}
 
 	// internal function to get the dockable wrapper
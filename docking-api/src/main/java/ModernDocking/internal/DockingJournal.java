@@ -0,0 +1,446 @@
+/*
+Copyright (c) 2024 Andrew Auclair
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package ModernDocking.internal;
+
+import ModernDocking.Dockable;
+import ModernDocking.DockingRegion;
+import ModernDocking.api.AppStateAPI;
+import ModernDocking.api.DockingAPI;
+import ModernDocking.api.RootDockingPanelAPI;
+import ModernDocking.ui.ToolbarLocation;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append only journal of docking operations, used when journaled persistence is enabled in AppStateAPI.
+ * <p>
+ * Each operation is appended to a journal file next to the auto persist file as a single line. The snapshot stores
+ * the sequence number of the last record it includes and the journal starts with the same number, records at or below
+ * either of them are skipped on replay. The snapshot is written first, so after a crash between the two writes the
+ * snapshot's sequence number is the newer one.
+ * Changes the journal can't describe, such as creating new windows, request a new snapshot instead.
+ */
+public class DockingJournal {
+	private static final String className = DockingJournal.class.getName();
+	private static final Logger logger = Logger.getLogger(className.substring(0, className.lastIndexOf('.')));
+
+	// once this many records have been appended since the last snapshot, we request a new snapshot
+	private static final int COMPACT_AFTER_RECORDS = 500;
+
+	private static final String BASE = "base";
+
+	private final DockingAPI docking;
+
+	// depth of the docking operations currently running. only the outermost operation is recorded
+	private int depth = 0;
+	private boolean replaying = false;
+
+	// the journal is only valid on top of a snapshot taken or restored in this session
+	private boolean hasSnapshot = false;
+
+	private long sequence = 0;
+	private int recordsSinceSnapshot = 0;
+
+	// set on the writer thread when an append fails. the journal is missing a record until the next snapshot is written
+	private volatile boolean appendFailed = false;
+
+	public DockingJournal(DockingAPI docking) {
+		this.docking = docking;
+	}
+
+	/**
+	 * Get the journal file that goes along with an auto persist file
+	 *
+	 * @param persistFile The auto persist file
+	 * @return The journal file
+	 */
+	public static File journalFile(File persistFile) {
+		return new File(persistFile.getPath() + ".journal");
+	}
+
+	/**
+	 * Called at the start of a docking operation. Anything done during the operation is not recorded on its own.
+	 */
+	public void begin() {
+		depth++;
+	}
+
+	/**
+	 * Called at the end of a docking operation
+	 */
+	public void end() {
+		depth--;
+	}
+
+	/**
+	 * Check if a docking operation is running. The operation records itself and persists once it's done.
+	 *
+	 * @return True if a docking operation is running
+	 */
+	public boolean isInOperation() {
+		return depth > 0;
+	}
+
+	private boolean isRecording() {
+		AppStateAPI appState = docking.getAppState();
+
+		return depth == 0 && !replaying && appState.isJournaled() && appState.isAutoPersist() && !appState.isPaused() && appState.getPersistFile() != null;
+	}
+
+	/**
+	 * Append a record to the journal. Only recorded if this is not part of another docking operation.
+	 *
+	 * @param fields The operation followed by its arguments
+	 */
+	public void record(String... fields) {
+		if (!isRecording()) {
+			return;
+		}
+
+		// nothing to append to yet. the snapshot will include this change
+		if (!hasSnapshot) {
+			docking.getAppState().compact();
+			return;
+		}
+
+		sequence++;
+
+		StringBuilder line = new StringBuilder().append(sequence);
+
+		for (String field : fields) {
+			line.append('\t').append(escape(field));
+		}
+		line.append('\n');
+
+		File file = journalFile(docking.getAppState().getPersistFile());
+		byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+
+		AsyncLayoutWriter.getInstance().execute(() -> {
+			try {
+				Files.write(file.toPath(), bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+			}
+			catch (IOException e) {
+				appendFailed = true;
+				SwingUtilities.invokeLater(this::snapshotIfAppendFailed);
+				throw e;
+			}
+		});
+
+		recordsSinceSnapshot++;
+
+		if (recordsSinceSnapshot >= COMPACT_AFTER_RECORDS) {
+			docking.getAppState().compact();
+		}
+
+		snapshotIfAppendFailed();
+	}
+
+	// replay stops at a missing record, so the changes after a failed append only survive in a new snapshot.
+	// called on the EDT. if persistence is paused, the flag stays set and the next record checks it again
+	private void snapshotIfAppendFailed() {
+		AppStateAPI appState = docking.getAppState();
+
+		if (appendFailed && appState.isAutoPersist() && !appState.isPaused()) {
+			appendFailed = false;
+			appState.compact();
+		}
+	}
+
+	/**
+	 * The current change can't be described by the journal, request a new snapshot
+	 */
+	public void invalidate() {
+		if (isRecording()) {
+			docking.getAppState().compact();
+		}
+	}
+
+	/**
+	 * Called on the EDT when a snapshot of the layout is captured
+	 *
+	 * @return Sequence number of the last record included in the snapshot
+	 */
+	public long snapshotCaptured() {
+		hasSnapshot = true;
+		recordsSinceSnapshot = 0;
+
+		return sequence;
+	}
+
+	/**
+	 * Reset the journal after a snapshot has been written. Called on the writer thread.
+	 *
+	 * @param persistFile The auto persist file the snapshot was written to
+	 * @param sequence Sequence number of the last record included in the snapshot
+	 * @throws IOException Thrown if the journal could not be written
+	 */
+	public static void truncate(File persistFile, long sequence) throws IOException {
+		byte[] bytes = (BASE + "\t" + sequence + "\n").getBytes(StandardCharsets.UTF_8);
+
+		AsyncLayoutWriter.writeAtomically(journalFile(persistFile), out -> out.write(bytes));
+	}
+
+	/**
+	 * Remove the journal after a snapshot has been written without journaling. Called on the writer thread.
+	 *
+	 * @param persistFile The auto persist file the snapshot was written to
+	 * @throws IOException Thrown if the journal could not be deleted
+	 */
+	public static void delete(File persistFile) throws IOException {
+		Files.deleteIfExists(journalFile(persistFile).toPath());
+	}
+
+	/**
+	 * Replay the records in the journal that are newer than the snapshot. Must be called on the EDT after
+	 * the snapshot has been restored. Replay stops at the first record that is missing, can't be read or
+	 * fails to apply, the records after it depend on it.
+	 *
+	 * @param persistFile The auto persist file the snapshot was loaded from
+	 * @param snapshotSequence Sequence number of the last record included in the snapshot
+	 * @return True if every record newer than the snapshot was applied
+	 */
+	public boolean replay(File persistFile, long snapshotSequence) {
+		File file = journalFile(persistFile);
+
+		hasSnapshot = true;
+
+		// new records have to be numbered after the snapshot, even if its journal is gone
+		sequence = Math.max(sequence, snapshotSequence);
+
+		if (!file.exists()) {
+			return true;
+		}
+
+		List<String> lines;
+
+		try {
+			lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		}
+		catch (IOException e) {
+			logger.log(Level.INFO, e.getMessage(), e);
+			return false;
+		}
+
+		// sequence number of the last record included in the restored layout
+		long applied = snapshotSequence;
+		boolean complete = true;
+
+		replaying = true;
+
+		try {
+			for (String line : lines) {
+				if (line.isEmpty()) {
+					continue;
+				}
+
+				try {
+					String[] fields = line.split("\t", -1);
+
+					for (int i = 0; i < fields.length; i++) {
+						fields[i] = unescape(fields[i]);
+					}
+
+					if (fields[0].equals(BASE)) {
+						applied = Math.max(applied, Long.parseLong(fields[1]));
+						sequence = Math.max(sequence, applied);
+						continue;
+					}
+
+					long recordSequence = Long.parseLong(fields[0]);
+
+					// keep reading after a failure so that new records are numbered after every record in the file
+					sequence = Math.max(sequence, recordSequence);
+
+					// replay has stopped, or the record is already part of the snapshot
+					if (!complete || recordSequence <= applied) {
+						continue;
+					}
+
+					if (recordSequence != applied + 1) {
+						logger.log(Level.INFO, "ModernDocking: Journal record " + (applied + 1) + " is missing, the rest of the journal is not replayed");
+						complete = false;
+						continue;
+					}
+
+					apply(fields);
+					applied = recordSequence;
+				}
+				catch (Exception e) {
+					// the last line might have been cut off, or the dockables in it no longer exist
+					if (complete) {
+						logger.log(Level.INFO, "ModernDocking: Failed to replay journal record, the rest of the journal is not replayed: " + line, e);
+						complete = false;
+					}
+				}
+			}
+		}
+		finally {
+			replaying = false;
+		}
+		return complete;
+	}
+
+	private void apply(String[] fields) {
+		DockingInternal internals = DockingInternal.get(docking);
+		Dockable dockable = internals.getDockable(fields[2]);
+
+		switch (fields[1]) {
+			case "dock-root":
+				docking.dock(dockable, docking.getMainWindow(), DockingRegion.valueOf(fields[3]), Double.parseDouble(fields[4]));
+				break;
+			case "dock":
+				docking.dock(dockable, internals.getDockable(fields[3]), DockingRegion.valueOf(fields[4]), Double.parseDouble(fields[5]));
+				break;
+			case "dock-tab": {
+				DockingPanel parent = internals.getWrapper(internals.getDockable(fields[3])).getParent();
+
+				if (parent instanceof DockedTabbedPanel) {
+					docking.undock(dockable);
+					((DockedTabbedPanel) parent).dockAtIndex(dockable, Integer.parseInt(fields[4]));
+				}
+				break;
+			}
+			case "undock":
+				docking.undock(dockable);
+				break;
+			case "pin":
+				docking.pinDockable(dockable);
+				break;
+			case "unpin": {
+				Window window = docking.getMainWindow();
+				RootDockingPanelAPI root = DockingComponentUtils.rootForWindow(docking, window);
+
+				docking.unpinDockable(dockable, ToolbarLocation.valueOf(fields[3]), window, root);
+				break;
+			}
+			case "maximize":
+				docking.maximize(dockable);
+				break;
+			case "minimize":
+				docking.minimize(dockable);
+				break;
+			case "select": {
+				DockingPanel parent = internals.getWrapper(dockable).getParent();
+
+				if (parent instanceof DockedTabbedPanel) {
+					((DockedTabbedPanel) parent).bringToFront(dockable);
+				}
+				break;
+			}
+			case "divider": {
+				DockedSplitPanel split = findSplit(internals.getWrapper(dockable), internals.getWrapper(internals.getDockable(fields[3])));
+
+				if (split != null) {
+					split.setDividerLocation(Double.parseDouble(fields[4]));
+				}
+				break;
+			}
+			default:
+				logger.log(Level.INFO, "ModernDocking: Unknown journal operation: " + fields[1]);
+		}
+	}
+
+	/**
+	 * Find the first dockable in a docking panel. Used to identify split panels in the journal.
+	 *
+	 * @param panel The panel to search
+	 * @return The first dockable, or null if the panel is empty
+	 */
+	public static Dockable firstDockable(DockingPanel panel) {
+		if (panel instanceof DockedSimplePanel) {
+			return ((DockedSimplePanel) panel).getWrapper().getDockable();
+		}
+		if (panel instanceof DockedTabbedPanel) {
+			List<DockableWrapper> wrappers = ((DockedTabbedPanel) panel).getDockables();
+			return wrappers.isEmpty() ? null : wrappers.get(0).getDockable();
+		}
+		if (panel instanceof DockedSplitPanel) {
+			return firstDockable(((DockedSplitPanel) panel).getLeft());
+		}
+		return null;
+	}
+
+	// the split that has one dockable on each side is the closest split containing both of them
+	private static DockedSplitPanel findSplit(DockableWrapper left, DockableWrapper right) {
+		if (left.getParent() == null || right.getParent() == null) {
+			return null;
+		}
+
+		for (Container parent = left.getParent().getParent(); parent != null; parent = parent.getParent()) {
+			if (parent instanceof DockedSplitPanel && javax.swing.SwingUtilities.isDescendingFrom(right.getParent(), parent)) {
+				return (DockedSplitPanel) parent;
+			}
+		}
+		return null;
+	}
+
+	private static String escape(String field) {
+		StringBuilder builder = new StringBuilder(field.length());
+
+		for (char c : field.toCharArray()) {
+			switch (c) {
+				case '\\': builder.append("\\\\"); break;
+				case '\t': builder.append("\\t"); break;
+				case '\n': builder.append("\\n"); break;
+				case '\r': builder.append("\\r"); break;
+				default: builder.append(c);
+			}
+		}
+		return builder.toString();
+	}
+
+	private static String unescape(String field) {
+		if (field.indexOf('\\') == -1) {
+			return field;
+		}
+
+		StringBuilder builder = new StringBuilder(field.length());
+
+		for (int i = 0; i < field.length(); i++) {
+			char c = field.charAt(i);
+
+			if (c == '\\' && i + 1 < field.length()) {
+				char next = field.charAt(++i);
+
+				switch (next) {
+					case 't': builder.append('\t'); break;
+					case 'n': builder.append('\n'); break;
+					case 'r': builder.append('\r'); break;
+					default: builder.append(next);
+				}
+			}
+			else {
+				builder.append(c);
+			}
+		}
+		return builder.toString();
+	}
+}
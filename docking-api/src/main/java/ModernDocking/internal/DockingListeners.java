@@ -22,12 +22,18 @@ SOFTWARE.
 package ModernDocking.internal;
 
 import ModernDocking.Dockable;
+import ModernDocking.api.DockingAPI;
+import ModernDocking.event.DockingBatchEvent;
+import ModernDocking.event.DockingBatchListener;
 import ModernDocking.event.DockingEvent;
 import ModernDocking.event.DockingListener;
 import ModernDocking.event.MaximizeListener;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Manager class for docking and maximize listeners
@@ -35,6 +41,15 @@ import java.util.List;
 public class DockingListeners {
 	private static final List<MaximizeListener> maximizeListeners = new ArrayList<>();
 	private static final List<DockingListener> dockingListeners = new ArrayList<>();
+	// batch listeners of each docking instance, only called for the batches of their own instance
+	private static final Map<DockingAPI, List<DockingBatchListener>> batchListeners = new HashMap<>();
+
+	// listeners that only want events for a single dockable, keyed by persistent ID
+	private static final Map<String, List<MaximizeListener>> dockableMaximizeListeners = new HashMap<>();
+	private static final Map<String, List<DockingListener>> dockableDockingListeners = new HashMap<>();
+
+	// docking events are held while the docking instance of their dockable has a batch in progress and sent when it ends
+	private static final Map<DockingAPI, List<DockingEvent>> batchedEvents = new HashMap<>();
 
 	/**
 	 * Add a new maximize listener. Will be called when a dockable is maximized
@@ -64,6 +79,41 @@ public class DockingListeners {
 	 */
 	public static void fireMaximizeEvent(Dockable dockable, boolean maximized) {
 		maximizeListeners.forEach(listener -> listener.maximized(dockable, maximized));
+
+		dockableMaximizeListeners.getOrDefault(dockable.getPersistentID(), Collections.emptyList())
+				.forEach(listener -> listener.maximized(dockable, maximized));
+	}
+
+	/**
+	 * Add a maximize listener that is only called when the dockable with the given persistent ID is maximized or minimized
+	 *
+	 * @param persistentID Persistent ID of the dockable to listen to
+	 * @param listener Listener to add
+	 */
+	public static void addMaximizeListener(String persistentID, MaximizeListener listener) {
+		List<MaximizeListener> listeners = dockableMaximizeListeners.computeIfAbsent(persistentID, id -> new ArrayList<>());
+
+		if (!listeners.contains(listener)) {
+			listeners.add(listener);
+		}
+	}
+
+	/**
+	 * Remove a maximize listener added for a single dockable
+	 *
+	 * @param persistentID Persistent ID of the dockable the listener was added for
+	 * @param listener Listener to remove
+	 */
+	public static void removeMaximizeListener(String persistentID, MaximizeListener listener) {
+		List<MaximizeListener> listeners = dockableMaximizeListeners.get(persistentID);
+
+		if (listeners != null) {
+			listeners.remove(listener);
+
+			if (listeners.isEmpty()) {
+				dockableMaximizeListeners.remove(persistentID);
+			}
+		}
 	}
 
 	/**
@@ -86,13 +136,77 @@ public class DockingListeners {
 		dockingListeners.remove(listener);
 	}
 
+	/**
+	 * Add a new batch listener. Will be called once at the end of each batch of docking changes of the docking instance
+	 *
+	 * @param docking The docking instance to listen to
+	 * @param listener Listener to add
+	 */
+	public static void addDockingBatchListener(DockingAPI docking, DockingBatchListener listener) {
+		List<DockingBatchListener> listeners = batchListeners.computeIfAbsent(docking, key -> new ArrayList<>());
+
+		if (!listeners.contains(listener)) {
+			listeners.add(listener);
+		}
+	}
+
+	/**
+	 * Remove a batch listener
+	 *
+	 * @param docking The docking instance the listener was added to
+	 * @param listener Listener to remove
+	 */
+	public static void removeDockingBatchListener(DockingAPI docking, DockingBatchListener listener) {
+		List<DockingBatchListener> listeners = batchListeners.get(docking);
+
+		if (listeners != null) {
+			listeners.remove(listener);
+
+			if (listeners.isEmpty()) {
+				batchListeners.remove(docking);
+			}
+		}
+	}
+
+	/**
+	 * Add a docking listener that is only called for events of the dockable with the given persistent ID
+	 *
+	 * @param persistentID Persistent ID of the dockable to listen to
+	 * @param listener Listener to add
+	 */
+	public static void addDockingListener(String persistentID, DockingListener listener) {
+		List<DockingListener> listeners = dockableDockingListeners.computeIfAbsent(persistentID, id -> new ArrayList<>());
+
+		if (!listeners.contains(listener)) {
+			listeners.add(listener);
+		}
+	}
+
+	/**
+	 * Remove a docking listener added for a single dockable
+	 *
+	 * @param persistentID Persistent ID of the dockable the listener was added for
+	 * @param listener Listener to remove
+	 */
+	public static void removeDockingListener(String persistentID, DockingListener listener) {
+		List<DockingListener> listeners = dockableDockingListeners.get(persistentID);
+
+		if (listeners != null) {
+			listeners.remove(listener);
+
+			if (listeners.isEmpty()) {
+				dockableDockingListeners.remove(persistentID);
+			}
+		}
+	}
+
 	/**
 	 * Fire a new docked event
 	 *
 	 * @param dockable Dockable that was docked
 	 */
 	public static void fireDockedEvent(Dockable dockable) {
-		dockingListeners.forEach(listener -> listener.dockingChange(new DockingEvent(DockingEvent.ID.DOCKED, dockable)));
+		fireDockingEvent(new DockingEvent(DockingEvent.ID.DOCKED, dockable));
 	}
 
 	/**
@@ -101,7 +215,7 @@ public class DockingListeners {
 	 * @param dockable Dockable that was undocked
 	 */
 	public static void fireUndockedEvent(Dockable dockable) {
-		dockingListeners.forEach(listener -> listener.dockingChange(new DockingEvent(DockingEvent.ID.UNDOCKED, dockable)));
+		fireDockingEvent(new DockingEvent(DockingEvent.ID.UNDOCKED, dockable));
 	}
 
 	/**
@@ -110,7 +224,7 @@ public class DockingListeners {
 	 * @param dockable Dockable that was pinned
 	 */
 	public static void firePinnedEvent(Dockable dockable) {
-		dockingListeners.forEach(listener -> listener.dockingChange(new DockingEvent(DockingEvent.ID.PINNED, dockable)));
+		fireDockingEvent(new DockingEvent(DockingEvent.ID.PINNED, dockable));
 	}
 
 	/**
@@ -119,7 +233,7 @@ public class DockingListeners {
 	 * @param dockable Dockable that was unpinned
 	 */
 	public static void fireUnpinnedEvent(Dockable dockable) {
-		dockingListeners.forEach(listener -> listener.dockingChange(new DockingEvent(DockingEvent.ID.UNPINNED, dockable)));
+		fireDockingEvent(new DockingEvent(DockingEvent.ID.UNPINNED, dockable));
 	}
 
 	/**
@@ -128,7 +242,7 @@ public class DockingListeners {
 	 * @param dockable Dockable that was shown
 	 */
 	public static void fireShownEvent(Dockable dockable) {
-		dockingListeners.forEach(listener -> listener.dockingChange(new DockingEvent(DockingEvent.ID.SHOWN, dockable)));
+		fireDockingEvent(new DockingEvent(DockingEvent.ID.SHOWN, dockable));
 	}
 
 	/**
@@ -137,10 +251,54 @@ public class DockingListeners {
 	 * @param dockable Dockable that was hidden
 	 */
 	public static void fireHiddenEvent(Dockable dockable) {
-		dockingListeners.forEach(listener -> listener.dockingChange(new DockingEvent(DockingEvent.ID.HIDDEN, dockable)));
+		fireDockingEvent(new DockingEvent(DockingEvent.ID.HIDDEN, dockable));
 	}
 
+	/**
+	 * Fire a docking event to the global listeners and the listeners of the event's dockable
+	 *
+	 * @param e Event to fire
+	 */
 	public static void fireDockingEvent(DockingEvent e) {
+		DockingAPI docking = DockingInternal.findDocking(e.getDockable());
+
+		if (docking != null && docking.isBatching()) {
+			batchedEvents.computeIfAbsent(docking, key -> new ArrayList<>()).add(e);
+			return;
+		}
+
 		dockingListeners.forEach(listener -> listener.dockingChange(e));
+
+		fireDockableEvent(e);
+	}
+
+	private static void fireDockableEvent(DockingEvent e) {
+		dockableDockingListeners.getOrDefault(e.getDockable().getPersistentID(), Collections.emptyList())
+				.forEach(listener -> listener.dockingChange(e));
+	}
+
+	/**
+	 * Send the docking events held during a batch of a docking instance. Called when its outermost batch ends. The held
+	 * events are sent in order, then the batch listeners of the instance receive a single DockingBatchEvent containing
+	 * all of them. Events and batch listeners of other docking instances are not affected by the batch.
+	 *
+	 * @param docking The docking instance whose batch ended
+	 */
+	public static void endBatch(DockingAPI docking) {
+		List<DockingEvent> events = batchedEvents.remove(docking);
+
+		if (events == null) {
+			return;
+		}
+
+		events.forEach(DockingListeners::fireDockingEvent);
+
+		List<DockingBatchListener> listeners = batchListeners.get(docking);
+
+		if (listeners != null) {
+			DockingBatchEvent batch = new DockingBatchEvent(events);
+
+			new ArrayList<>(listeners).forEach(listener -> listener.batchFinished(batch));
+		}
 	}
 }
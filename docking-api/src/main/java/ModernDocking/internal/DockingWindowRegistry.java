@@ -0,0 +1,101 @@
+/*
+Copyright (c) 2024 Andrew Auclair
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package ModernDocking.internal;
+
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks the stacking order of the docking windows. Windows move to the top when they are activated or brought
+ * to the front by the framework, which lets us find the topmost docking window at a screen position.
+ */
+public class DockingWindowRegistry extends WindowAdapter {
+	// docking windows, topmost first
+	private final List<Window> windows = new ArrayList<>();
+
+	/**
+	 * Add a window to the registry. New windows are assumed to be on top.
+	 *
+	 * @param window The window to add
+	 */
+	public void addWindow(Window window) {
+		windows.remove(window);
+		windows.add(0, window);
+
+		window.addWindowListener(this);
+	}
+
+	/**
+	 * Remove a window from the registry
+	 *
+	 * @param window The window to remove
+	 */
+	public void removeWindow(Window window) {
+		windows.remove(window);
+
+		window.removeWindowListener(this);
+	}
+
+	/**
+	 * Record that a window has been brought to the front
+	 *
+	 * @param window The window that is now on top
+	 */
+	public void moveToFront(Window window) {
+		if (windows.remove(window)) {
+			windows.add(0, window);
+		}
+	}
+
+	/**
+	 * Check if a window is the topmost docking window
+	 *
+	 * @param window The window to check
+	 * @return True if no other docking window has been activated or brought to the front since this one
+	 */
+	public boolean isTopmost(Window window) {
+		return !windows.isEmpty() && windows.get(0) == window;
+	}
+
+	/**
+	 * Find the topmost visible docking window at a screen position
+	 *
+	 * @param screenPos Position on screen
+	 * @return The topmost window containing the position, or null
+	 */
+	public Window findTopmostAt(Point screenPos) {
+		for (Window window : windows) {
+			if (window.isVisible() && window.getBounds().contains(screenPos)) {
+				return window;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void windowActivated(WindowEvent e) {
+		moveToFront(e.getWindow());
+	}
+}
@@ -44,6 +44,12 @@ public class ApplicationLayout {
 	 */
 	private final List<FrameLayout> layouts = new ArrayList<>();
 
+	// computed the first time it's needed, cleared when a window layout is added
+	private Integer structuralHash = null;
+
+	// sequence number of the last docking journal record included in this layout, 0 if it isn't a journal snapshot
+	private long journalSequence = 0;
+
 	/**
 	 * Create an empty ApplicationLayout
 	 */
@@ -73,6 +79,7 @@ public class ApplicationLayout {
 			}
 		}
 		layouts.add(new FrameLayout(layout, true));
+		structuralHash = null;
 	}
 
 	/**
@@ -82,6 +89,7 @@ public class ApplicationLayout {
 	 */
 	public void addFrame(WindowLayout layout) {
 		layouts.add(new FrameLayout(layout, layout.isMainFrame()));
+		structuralHash = null;
 	}
 
 	/**
@@ -109,4 +117,63 @@ public class ApplicationLayout {
 				.map(layout -> layout.layout)
 				.collect(Collectors.toList());
 	}
+
+	/**
+	 * Get the sequence number of the last docking journal record included in this layout. Journal records at or
+	 * below it are skipped when the journal is replayed on top of this layout.
+	 *
+	 * @return Journal sequence number, 0 if this layout isn't a journal snapshot
+	 */
+	public long getJournalSequence() {
+		return journalSequence;
+	}
+
+	/**
+	 * Set the sequence number of the last docking journal record included in this layout
+	 *
+	 * @param journalSequence Journal sequence number
+	 */
+	public void setJournalSequence(long journalSequence) {
+		this.journalSequence = journalSequence;
+	}
+
+	/**
+	 * Hash of the structure of all the window layouts. Layouts that are structurally equal have the same hash.
+	 * The hash is only computed once, the window layouts should not be changed after it has been requested.
+	 *
+	 * @return Structural hash
+	 */
+	public int structuralHash() {
+		if (structuralHash == null) {
+			int hash = 1;
+
+			for (FrameLayout frameLayout : layouts) {
+				hash = 31 * hash + frameLayout.layout.structuralHash();
+			}
+			structuralHash = hash;
+		}
+		return structuralHash;
+	}
+
+	/**
+	 * Check if this application layout matches another. Every window layout has to match, in the same order.
+	 *
+	 * @param other The layout to compare to
+	 * @return True if the layouts would be restored the same way
+	 */
+	public boolean structurallyEquals(ApplicationLayout other) {
+		if (other == null || layouts.size() != other.layouts.size()) {
+			return false;
+		}
+
+		for (int i = 0; i < layouts.size(); i++) {
+			FrameLayout frameLayout = layouts.get(i);
+			FrameLayout otherLayout = other.layouts.get(i);
+
+			if (frameLayout.isMainFrame != otherLayout.isMainFrame || !frameLayout.layout.structurallyEquals(otherLayout.layout)) {
+				return false;
+			}
+		}
+		return true;
+	}
 }
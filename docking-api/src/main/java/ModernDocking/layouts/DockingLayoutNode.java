@@ -65,4 +65,23 @@ public interface DockingLayoutNode {
 	 * @param parent New parent
 	 */
 	void setParent(DockingLayoutNode parent);
+
+	/**
+	 * Hash of the structure of this node and its children. Nodes that are structurally equal have the same hash.
+	 *
+	 * @return Structural hash
+	 */
+	default int structuralHash() {
+		return System.identityHashCode(this);
+	}
+
+	/**
+	 * Check if this node and its children match another node. Divider proportions are compared with a small tolerance.
+	 *
+	 * @param other Node to compare to
+	 * @return True if the nodes have the same structure, dockables and properties
+	 */
+	default boolean structurallyEquals(DockingLayoutNode other) {
+		return this == other;
+	}
 }
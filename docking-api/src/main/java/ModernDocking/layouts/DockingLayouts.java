@@ -37,6 +37,31 @@ public class DockingLayouts {
 	private static final List<DockingLayoutListener> listeners = new ArrayList<>();
 	private static final Map<String, ApplicationLayout> layouts = new HashMap<>();
 
+	// when set, named layouts are stored in the library instead of the in-memory map
+	private static LayoutLibrary library = null;
+
+	/**
+	 * Store named layouts in a disk backed layout library. Layouts already added in memory are moved into the library.
+	 *
+	 * @param library The library to use, or null to keep layouts in memory
+	 */
+	public static void setLayoutLibrary(LayoutLibrary library) {
+		if (library != null) {
+			layouts.forEach(library::addLayout);
+			layouts.clear();
+		}
+		DockingLayouts.library = library;
+	}
+
+	/**
+	 * Get the layout library used to store named layouts
+	 *
+	 * @return The current layout library, or null if layouts are kept in memory
+	 */
+	public static LayoutLibrary getLayoutLibrary() {
+		return library;
+	}
+
 	/**
 	 * Add a new layouts listener
 	 *
@@ -56,12 +81,30 @@ public class DockingLayouts {
 	}
 
 	public static void addLayout(String name, ApplicationLayout layout) {
-		removeLayout(name);
-		layouts.put(name, layout);
+		if (library != null) {
+			// replaced in place, the layout keeps its file and its position in the library
+			library.addLayout(name, layout);
+		}
+		else {
+			removeLayout(name);
+			layouts.put(name, layout);
+		}
 		listeners.forEach(l -> l.layoutChange(new DockingLayoutEvent(DockingLayoutEvent.ID.ADDED, name, layout)));
 	}
 
 	public static void removeLayout(String name) {
+		if (library != null) {
+			if (library.contains(name)) {
+				ApplicationLayout removed = library.removeLayout(name);
+
+				// listeners always receive a layout, send an empty one if the file of the removed layout couldn't be read
+				ApplicationLayout layout = removed != null ? removed : new ApplicationLayout();
+
+				listeners.forEach(l -> l.layoutChange(new DockingLayoutEvent(DockingLayoutEvent.ID.REMOVED, name, layout)));
+			}
+			return;
+		}
+
 		ApplicationLayout layout = layouts.remove(name);
 
 		if (layout != null) {
@@ -84,10 +127,21 @@ public class DockingLayouts {
 	 * @return The layout, or null if it is not found
 	 */
 	public static ApplicationLayout getLayout(String name) {
+		if (library != null) {
+			return library.getLayout(name);
+		}
 		return layouts.get(name);
 	}
 
+	/**
+	 * Get the names of all the layouts. This does not load any layouts from the layout library.
+	 *
+	 * @return List of layout names
+	 */
 	public static List<String> getLayoutNames() {
+		if (library != null) {
+			return library.getLayoutNames();
+		}
 		return new ArrayList<>(layouts.keySet());
 	}
 
@@ -29,6 +29,7 @@ import ModernDocking.settings.Settings;
 import javax.swing.*;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Docking layout node for a simple panel. A that contains a single dockable.
@@ -161,4 +162,19 @@ public class DockingSimplePanelNode implements DockingLayoutNode {
 	public void setProperties(Map<String, String> properties) {
 		this.properties = new HashMap<>(properties);
 	}
+
+	@Override
+	public int structuralHash() {
+		return Objects.hash(persistentID, className, properties);
+	}
+
+	@Override
+	public boolean structurallyEquals(DockingLayoutNode other) {
+		if (!(other instanceof DockingSimplePanelNode)) {
+			return false;
+		}
+		DockingSimplePanelNode node = (DockingSimplePanelNode) other;
+
+		return persistentID.equals(node.persistentID) && Objects.equals(className, node.className) && properties.equals(node.properties);
+	}
 }
@@ -38,6 +38,9 @@ package ModernDocking.layouts;
 	private final int orientation;
 	private final double dividerProportion;
 
+	// divider proportions closer than this are considered equal by structurallyEquals
+	private static final double DIVIDER_PROPORTION_TOLERANCE = 0.001;
+
 	private DockingLayoutNode parent;
 
 	 /**
@@ -155,4 +158,25 @@ package ModernDocking.layouts;
 	public double getDividerProportion() {
 		return dividerProportion;
 	}
+
+	@Override
+	public int structuralHash() {
+		// the divider proportion is left out so that proportions within the tolerance hash the same
+		int hash = 31 * orientation + (left == null ? 0 : left.structuralHash());
+
+		return 31 * hash + (right == null ? 0 : right.structuralHash());
+	}
+
+	@Override
+	public boolean structurallyEquals(DockingLayoutNode other) {
+		if (!(other instanceof DockingSplitPanelNode)) {
+			return false;
+		}
+		DockingSplitPanelNode node = (DockingSplitPanelNode) other;
+
+		return orientation == node.orientation &&
+				Math.abs(dividerProportion - node.dividerProportion) <= DIVIDER_PROPORTION_TOLERANCE &&
+				(left == null ? node.left == null : left.structurallyEquals(node.left)) &&
+				(right == null ? node.right == null : right.structurallyEquals(node.right));
+	}
 }
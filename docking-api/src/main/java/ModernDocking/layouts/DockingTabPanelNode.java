@@ -30,6 +30,7 @@ import javax.swing.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -222,4 +223,33 @@ public class DockingTabPanelNode implements DockingLayoutNode {
 			}
 		}
 	}
+
+	@Override
+	public int structuralHash() {
+		int hash = Objects.hashCode(selectedTabID);
+
+		for (DockingSimplePanelNode tab : tabs) {
+			hash = 31 * hash + tab.structuralHash();
+		}
+		return hash;
+	}
+
+	@Override
+	public boolean structurallyEquals(DockingLayoutNode other) {
+		if (!(other instanceof DockingTabPanelNode)) {
+			return false;
+		}
+		DockingTabPanelNode node = (DockingTabPanelNode) other;
+
+		if (!Objects.equals(selectedTabID, node.selectedTabID) || tabs.size() != node.tabs.size()) {
+			return false;
+		}
+
+		for (int i = 0; i < tabs.size(); i++) {
+			if (!tabs.get(i).structurallyEquals(node.tabs.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
 }
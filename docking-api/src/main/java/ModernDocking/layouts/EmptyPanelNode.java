@@ -49,4 +49,14 @@ public class EmptyPanelNode implements DockingLayoutNode {
 	@Override
 	public void setParent(DockingLayoutNode parent) {
 	}
+
+	@Override
+	public int structuralHash() {
+		return 0;
+	}
+
+	@Override
+	public boolean structurallyEquals(DockingLayoutNode other) {
+		return other instanceof EmptyPanelNode;
+	}
 }
@@ -0,0 +1,400 @@
+/*
+Copyright (c) 2024 Andrew Auclair
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package ModernDocking.layouts;
+
+import ModernDocking.api.DockingAPI;
+import ModernDocking.exception.DockingLayoutException;
+import ModernDocking.internal.AsyncLayoutWriter;
+
+import java.io.*;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Disk backed library of named application layouts. Each layout is stored in its own file in the library directory
+ * and an index file stores the name and a small header for each layout. Only the index is read when the library is
+ * opened, layouts are loaded when they are first requested and kept in a bounded cache.
+ * <p>
+ * Install a library with DockingLayouts.setLayoutLibrary to store the named layouts in it.
+ */
+public class LayoutLibrary {
+	private static final String className = LayoutLibrary.class.getName();
+	private static final Logger logger = Logger.getLogger(className.substring(0, className.lastIndexOf('.')));
+
+	private static final String INDEX_FILE_NAME = "layouts.index";
+	private static final int INDEX_MAGIC = 0x4D444C49; // MDLI
+	private static final int INDEX_VERSION = 1;
+
+	private static final int DEFAULT_CACHE_SIZE = 16;
+
+	/**
+	 * Header information about a layout in the library, available without loading the layout
+	 */
+	public static class Entry {
+		private final String name;
+		private final String fileName;
+		private final long modified;
+		private final int windowCount;
+		private final int dockableCount;
+
+		private Entry(String name, String fileName, long modified, int windowCount, int dockableCount) {
+			this.name = name;
+			this.fileName = fileName;
+			this.modified = modified;
+			this.windowCount = windowCount;
+			this.dockableCount = dockableCount;
+		}
+
+		/**
+		 * @return Name of the layout
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return Time the layout was last saved, in milliseconds since the epoch
+		 */
+		public long getModified() {
+			return modified;
+		}
+
+		/**
+		 * @return Number of windows in the layout, including the main window
+		 */
+		public int getWindowCount() {
+			return windowCount;
+		}
+
+		/**
+		 * @return Number of dockables in the layout
+		 */
+		public int getDockableCount() {
+			return dockableCount;
+		}
+	}
+
+	private final DockingAPI docking;
+	private final File directory;
+
+	// index entries in the order they were added
+	private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+	// layouts that have been loaded recently. the cache is bounded and the JVM is free to clear the references
+	private final Map<String, SoftReference<ApplicationLayout>> cache;
+
+	// layouts that have been added but not written yet. these can't be dropped from memory
+	private final Map<String, ApplicationLayout> unsaved = new ConcurrentHashMap<>();
+
+	// names of unsaved layouts whose last write failed. they're written again with the next change to the library
+	private final Set<String> failedWrites = ConcurrentHashMap.newKeySet();
+
+	private long nextFileID = 0;
+
+	/**
+	 * Open a layout library in the given directory, creating it if it does not exist. Only the index is read.
+	 *
+	 * @param docking The docking instance the layouts belong to
+	 * @param directory Directory to store the layouts in
+	 * @throws DockingLayoutException Thrown if the index exists but can't be read
+	 */
+	public LayoutLibrary(DockingAPI docking, File directory) throws DockingLayoutException {
+		this(docking, directory, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Open a layout library in the given directory, creating it if it does not exist. Only the index is read.
+	 *
+	 * @param docking The docking instance the layouts belong to
+	 * @param directory Directory to store the layouts in
+	 * @param cacheSize Maximum number of loaded layouts to keep in memory
+	 * @throws DockingLayoutException Thrown if the index exists but can't be read
+	 */
+	public LayoutLibrary(DockingAPI docking, File directory, int cacheSize) throws DockingLayoutException {
+		this.docking = docking;
+		this.directory = directory;
+
+		cache = new LinkedHashMap<String, SoftReference<ApplicationLayout>>(cacheSize, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, SoftReference<ApplicationLayout>> eldest) {
+				return size() > cacheSize;
+			}
+		};
+
+		File index = new File(directory, INDEX_FILE_NAME);
+
+		if (!index.exists()) {
+			return;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index.toPath())))) {
+			if (in.readInt() != INDEX_MAGIC) {
+				throw new IOException("Not a layout library index");
+			}
+			int version = in.readInt();
+
+			if (version != INDEX_VERSION) {
+				throw new IOException("Unsupported layout library index version " + version);
+			}
+
+			nextFileID = in.readLong();
+			int count = in.readInt();
+
+			for (int i = 0; i < count; i++) {
+				Entry entry = new Entry(in.readUTF(), in.readUTF(), in.readLong(), in.readInt(), in.readInt());
+
+				entries.put(entry.name, entry);
+			}
+		}
+		catch (IOException e) {
+			throw new DockingLayoutException(index, DockingLayoutException.FailureType.LOAD, e);
+		}
+	}
+
+	/**
+	 * @return The directory this library is stored in
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Get the names of all layouts in the library. Does not load any layouts.
+	 *
+	 * @return Layout names in the order they were added
+	 */
+	public List<String> getLayoutNames() {
+		return new ArrayList<>(entries.keySet());
+	}
+
+	/**
+	 * Get the header of a layout. Does not load the layout.
+	 *
+	 * @param name Name of the layout
+	 * @return The header of the layout, or null if it is not in the library
+	 */
+	public Entry getEntry(String name) {
+		return entries.get(name);
+	}
+
+	/**
+	 * Check if the library contains a layout
+	 *
+	 * @param name Name of the layout
+	 * @return True if the library contains a layout with this name
+	 */
+	public boolean contains(String name) {
+		return entries.containsKey(name);
+	}
+
+	/**
+	 * Get a layout from the library, loading it from disk if it is not in the cache
+	 *
+	 * @param name Name of the layout
+	 * @return The layout, or null if it is not in the library or failed to load
+	 */
+	public ApplicationLayout getLayout(String name) {
+		Entry entry = entries.get(name);
+
+		if (entry == null) {
+			return null;
+		}
+
+		ApplicationLayout layout = unsaved.get(name);
+
+		if (layout != null) {
+			return layout;
+		}
+
+		SoftReference<ApplicationLayout> reference = cache.get(name);
+		layout = reference != null ? reference.get() : null;
+
+		if (layout == null) {
+			try {
+				// the properties of undocked dockables are not part of named layouts
+				layout = docking.getLayoutPersistence().loadApplicationLayoutFromFile(new File(directory, entry.fileName), new ArrayList<>());
+			}
+			catch (DockingLayoutException e) {
+				logger.log(Level.INFO, e.getMessage(), e);
+				return null;
+			}
+			cache.put(name, new SoftReference<>(layout));
+		}
+		return layout;
+	}
+
+	/**
+	 * Add a layout to the library, replacing any layout with the same name. The layout is written on a background thread.
+	 *
+	 * @param name Name of the layout
+	 * @param layout The layout to store
+	 */
+	public void addLayout(String name, ApplicationLayout layout) {
+		Entry existing = entries.get(name);
+		String fileName = existing != null ? existing.fileName : "layout-" + nextFileID++ + ".layout";
+
+		int windowCount = (layout.getMainFrameLayout() != null ? 1 : 0) + layout.getFloatingFrameLayouts().size();
+
+		Entry entry = new Entry(name, fileName, System.currentTimeMillis(), windowCount, countDockables(layout));
+
+		entries.put(name, entry);
+		cache.put(name, new SoftReference<>(layout));
+		unsaved.put(name, layout);
+		failedWrites.remove(name);
+
+		writeLayout(name, fileName, layout);
+
+		retryFailedWrites();
+	}
+
+	private void writeLayout(String name, String fileName, ApplicationLayout layout) {
+		File file = new File(directory, fileName);
+		byte[] index = writeIndex();
+
+		AsyncLayoutWriter.getInstance().execute(() -> {
+			try {
+				Files.createDirectories(directory.toPath());
+
+				docking.getLayoutPersistence().saveLayoutToFile(file, layout, Collections.emptyList());
+
+				writeIndexFile(index);
+			}
+			catch (Exception e) {
+				// keep the layout in memory, only retry if it hasn't been replaced since
+				if (unsaved.get(name) == layout) {
+					failedWrites.add(name);
+				}
+				logger.log(Level.WARNING, "ModernDocking: Failed to write layout " + name + ", it will be written again with the next change to the library", e);
+				return;
+			}
+
+			// only forget the layout if it hasn't been replaced since
+			unsaved.remove(name, layout);
+		});
+	}
+
+	// queue the layouts whose last write failed again. called on the EDT
+	private void retryFailedWrites() {
+		for (String name : new ArrayList<>(failedWrites)) {
+			failedWrites.remove(name);
+
+			Entry entry = entries.get(name);
+			ApplicationLayout layout = unsaved.get(name);
+
+			if (entry != null && layout != null) {
+				writeLayout(name, entry.fileName, layout);
+			}
+		}
+	}
+
+	/**
+	 * Remove a layout from the library. The layout is loaded from disk first if it isn't in memory.
+	 *
+	 * @param name Name of the layout to remove
+	 * @return The removed layout, or null if it is not in the library or failed to load
+	 */
+	public ApplicationLayout removeLayout(String name) {
+		if (!entries.containsKey(name)) {
+			return null;
+		}
+
+		ApplicationLayout layout = getLayout(name);
+
+		Entry entry = entries.remove(name);
+
+		cache.remove(name);
+		unsaved.remove(name);
+		failedWrites.remove(name);
+
+		File file = new File(directory, entry.fileName);
+		byte[] index = writeIndex();
+
+		AsyncLayoutWriter.getInstance().execute(() -> {
+			writeIndexFile(index);
+
+			Files.deleteIfExists(file.toPath());
+		});
+
+		retryFailedWrites();
+
+		return layout;
+	}
+
+	// serialize the index on the calling thread so that the writer thread never touches the entries
+	private byte[] writeIndex() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(INDEX_MAGIC);
+			out.writeInt(INDEX_VERSION);
+			out.writeLong(nextFileID);
+			out.writeInt(entries.size());
+
+			for (Entry entry : entries.values()) {
+				out.writeUTF(entry.name);
+				out.writeUTF(entry.fileName);
+				out.writeLong(entry.modified);
+				out.writeInt(entry.windowCount);
+				out.writeInt(entry.dockableCount);
+			}
+		}
+		catch (IOException e) {
+			// can't happen with a ByteArrayOutputStream
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	private void writeIndexFile(byte[] index) throws IOException {
+		Files.createDirectories(directory.toPath());
+
+		AsyncLayoutWriter.writeAtomically(new File(directory, INDEX_FILE_NAME), out -> out.write(index));
+	}
+
+	private static int countDockables(ApplicationLayout layout) {
+		// layouts can be created without a main frame
+		WindowLayout mainFrame = layout.getMainFrameLayout();
+		int count = mainFrame != null ? countDockables(mainFrame.getRootNode()) : 0;
+
+		for (WindowLayout frame : layout.getFloatingFrameLayouts()) {
+			count += countDockables(frame.getRootNode());
+		}
+		return count;
+	}
+
+	private static int countDockables(DockingLayoutNode node) {
+		if (node instanceof DockingSimplePanelNode) {
+			return 1;
+		}
+		if (node instanceof DockingTabPanelNode) {
+			return ((DockingTabPanelNode) node).getPersistentIDs().size();
+		}
+		if (node instanceof DockingSplitPanelNode) {
+			return countDockables(((DockingSplitPanelNode) node).getLeft()) + countDockables(((DockingSplitPanelNode) node).getRight());
+		}
+		return 0;
+	}
+}
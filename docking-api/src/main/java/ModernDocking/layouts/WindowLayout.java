@@ -26,6 +26,7 @@ import java.awt.Dialog.ModalityType;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * layout of a single frame
@@ -232,4 +233,37 @@ public class WindowLayout {
 	public int getWindowHashCode() {
 		return windowHashCode;
 	}
+
+	/**
+	 * Hash of the structure of this window layout. Layouts that are structurally equal have the same hash.
+	 *
+	 * @return Structural hash
+	 */
+	public int structuralHash() {
+		int hash = Objects.hash(isMainFrame, hasSizeAndLocationInformation, location, size, state, modalityType, maximizedDockable,
+				westUnpinnedToolbarIDs, eastUnpinnedToolbarIDs, southUnpinnedToolbarIDs);
+
+		return 31 * hash + (rootNode == null ? 0 : rootNode.structuralHash());
+	}
+
+	/**
+	 * Check if this window layout matches another, including its tree of nodes and unpinned toolbars
+	 *
+	 * @param other The layout to compare to
+	 * @return True if the layouts would be restored the same way
+	 */
+	public boolean structurallyEquals(WindowLayout other) {
+		return other != null &&
+				isMainFrame == other.isMainFrame &&
+				hasSizeAndLocationInformation == other.hasSizeAndLocationInformation &&
+				Objects.equals(location, other.location) &&
+				Objects.equals(size, other.size) &&
+				state == other.state &&
+				modalityType == other.modalityType &&
+				Objects.equals(maximizedDockable, other.maximizedDockable) &&
+				westUnpinnedToolbarIDs.equals(other.westUnpinnedToolbarIDs) &&
+				eastUnpinnedToolbarIDs.equals(other.eastUnpinnedToolbarIDs) &&
+				southUnpinnedToolbarIDs.equals(other.southUnpinnedToolbarIDs) &&
+				(rootNode == null ? other.rootNode == null : rootNode.structurallyEquals(other.rootNode));
+	}
 }
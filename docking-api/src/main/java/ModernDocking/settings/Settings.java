@@ -32,6 +32,21 @@ public class Settings {
 
     private static boolean enableActiveHighlighter = true;
 
+    // drag an image of the dockables instead of the dockables themselves
+    private static boolean snapshotDragPreview = false;
+
+    // leave the dragged dockables docked and hidden until they are dropped
+    private static boolean deferredDragUndock = false;
+
+    // only add the display panels of tabs to the tabbed pane once they are shown
+    private static boolean lazyTabContent = false;
+
+    // milliseconds a tab group stays on the same tab before the hidden tabs are detached again, 0 to keep them
+    private static int lazyTabDetachDelay = 30000;
+
+    // number of hidden dockables kept awake before the least recently hidden are hibernated, 0 to never hibernate
+    private static int hibernationLimit = 0;
+
     public static boolean alwaysDisplayTabsMode() {
         return alwaysDisplayTabsMode;
     }
@@ -62,4 +77,67 @@ public class Settings {
     public static void setActiveHighlighterEnabled(boolean enabled) {
         enableActiveHighlighter = enabled;
     }
+
+    public static boolean isSnapshotDragPreviewEnabled() {
+        return snapshotDragPreview;
+    }
+
+    public static void setSnapshotDragPreviewEnabled(boolean enabled) {
+        snapshotDragPreview = enabled;
+    }
+
+    public static boolean isDeferredDragUndockEnabled() {
+        return deferredDragUndock;
+    }
+
+    public static void setDeferredDragUndockEnabled(boolean enabled) {
+        deferredDragUndock = enabled;
+    }
+
+    public static boolean isLazyTabContentEnabled() {
+        return lazyTabContent;
+    }
+
+    /**
+     * Only add the content of a tab to its tabbed pane when the tab is first shown. Applies to tab groups created after it's set.
+     *
+     * @param enabled Enable lazy tab content
+     */
+    public static void setLazyTabContentEnabled(boolean enabled) {
+        lazyTabContent = enabled;
+    }
+
+    public static int getLazyTabDetachDelay() {
+        return lazyTabDetachDelay;
+    }
+
+    /**
+     * Set how long a tab group has to stay on the same tab before the content of its hidden tabs is removed again.
+     * Only used when lazy tab content is enabled.
+     *
+     * @param delay Delay in milliseconds, 0 to never remove content once it has been shown
+     */
+    public static void setLazyTabDetachDelay(int delay) {
+        if (delay < 0) {
+            throw new IllegalArgumentException("illegal lazy tab detach delay: must be 0 or greater");
+        }
+        lazyTabDetachDelay = delay;
+    }
+
+    public static int getHibernationLimit() {
+        return hibernationLimit;
+    }
+
+    /**
+     * Set the number of hidden dockables that are kept awake. Once more dockables than this are hidden, the ones that have
+     * been hidden the longest are asked to release their resources with Dockable.hibernate().
+     *
+     * @param limit Number of hidden dockables to keep awake, 0 to never hibernate dockables
+     */
+    public static void setHibernationLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("illegal hibernation limit: must be 0 or greater");
+        }
+        hibernationLimit = limit;
+    }
 }
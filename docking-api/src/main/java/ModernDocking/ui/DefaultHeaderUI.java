@@ -186,7 +186,7 @@ public class DefaultHeaderUI extends JPanel implements DockingHeaderUI, Ancestor
 
 		setForeground(DockingSettings.getHeaderForeground());
 
-		setBorder(BorderFactory.createMatteBorder(0, 0, 1, 0, DockingSettings.getHighlighterNotSelectedBorder()));
+		setBorder(DockingSettings.getTheme().getHeaderBorder());
 
 		UIManager.addPropertyChangeListener(e -> {
 			if ("lookAndFeel".equals(e.getPropertyName())) {
@@ -194,7 +194,7 @@ public class DefaultHeaderUI extends JPanel implements DockingHeaderUI, Ancestor
 				SwingUtilities.invokeLater(() -> {
 					setBackground(bg);
 
-					setBorder(BorderFactory.createMatteBorder(0, 0, 1, 0, DockingSettings.getHighlighterNotSelectedBorder()));
+					setBorder(DockingSettings.getTheme().getHeaderBorder());
 				});
 
 				SwingUtilities.updateComponentTreeUI(settingsMenu);
@@ -76,11 +76,45 @@ public class DockingSettings {
     private static String currentHeaderBackground = themeHeaderBackground;
     private static String currentHeaderForeground = themeHeaderForeground;
 
+    // resolved once per look and feel, cleared whenever a property or the look and feel changes
+    private static volatile DockingTheme theme = null;
+
+    static {
+        UIManager.addPropertyChangeListener(e -> {
+            if ("lookAndFeel".equals(e.getPropertyName())) {
+                theme = null;
+            }
+        });
+        // UIManager.put changes a single value without changing the look and feel
+        UIManager.getDefaults().addPropertyChangeListener(e -> theme = null);
+    }
+
+    /**
+     * Get the resolved theme. The theme is only looked up in UIManager after the look and feel or one of the properties changes.
+     *
+     * @return Current theme
+     */
+    public static DockingTheme getTheme() {
+        DockingTheme current = theme;
+
+        if (current == null) {
+            current = new DockingTheme(resolveHandleBackground(), resolveHandleForeground(), resolveOverlayBackground(),
+                    resolveHighlighterSelectedBorder(), resolveHighlighterNotSelectedBorder(), resolveHeaderBackground(), resolveHeaderForeground());
+            theme = current;
+        }
+        return current;
+    }
+
     public static void setHandleBackgroundProperty(String property) {
         currentHandleBackground = property;
+        theme = null;
     }
 
     public static Color getHandleBackground() {
+        return getTheme().getHandleBackground();
+    }
+
+    private static Color resolveHandleBackground() {
         if (UIManager.get(handleBackground) != null) {
             return UIManager.getColor(handleBackground);
         }
@@ -93,8 +127,13 @@ public class DockingSettings {
 
     public static void setHandleForegroundProperty(String property) {
         currentHandleForeground = property;
+        theme = null;
     }
     public static Color getHandleForeground() {
+        return getTheme().getHandleForeground();
+    }
+
+    private static Color resolveHandleForeground() {
         if (UIManager.get(handleForeground) != null) {
             return UIManager.getColor(handleForeground);
         }
@@ -106,9 +145,14 @@ public class DockingSettings {
 
     public static void setOverlayBackgroundProperty(String property) {
         currentOverlayBackground = property;
+        theme = null;
     }
 
     public static Color getOverlayBackground() {
+        return getTheme().getOverlayBackground();
+    }
+
+    private static Color resolveOverlayBackground() {
         if (UIManager.get(currentOverlayBackground) != null) {
             return UIManager.getColor(currentOverlayBackground);
         }
@@ -120,9 +164,14 @@ public class DockingSettings {
 
     public static void setHighlighterSelectedBorderProperty(String property) {
         currentHighlightSelectedBorder = property;
+        theme = null;
     }
 
     public static Color getHighlighterSelectedBorder() {
+        return getTheme().getHighlighterSelectedBorder();
+    }
+
+    private static Color resolveHighlighterSelectedBorder() {
         if (UIManager.get(currentHighlightSelectedBorder) != null) {
             return UIManager.getColor(currentHighlightSelectedBorder);
         }
@@ -134,9 +183,14 @@ public class DockingSettings {
 
     public static void setHighlighterNotSelectedBorderProperty(String property) {
         currentHighlightNotSelectedBorder = property;
+        theme = null;
     }
 
     public static Color getHighlighterNotSelectedBorder() {
+        return getTheme().getHighlighterNotSelectedBorder();
+    }
+
+    private static Color resolveHighlighterNotSelectedBorder() {
         if (UIManager.get(currentHighlightNotSelectedBorder) != null) {
             return UIManager.getColor(currentHighlightNotSelectedBorder);
         }
@@ -148,9 +202,14 @@ public class DockingSettings {
 
     public static void setHeaderBackgroundProperty(String property) {
         currentHeaderBackground = property;
+        theme = null;
     }
 
     public static Color getHeaderBackground() {
+        return getTheme().getHeaderBackground();
+    }
+
+    private static Color resolveHeaderBackground() {
         if (UIManager.get(currentHeaderBackground) != null) {
             return UIManager.getColor(currentHeaderBackground);
         }
@@ -162,9 +221,14 @@ public class DockingSettings {
 
     public static void setHeaderForegroundProperty(String property) {
         currentHeaderForeground = property;
+        theme = null;
     }
 
     public static Color getHeaderForeground() {
+        return getTheme().getHeaderForeground();
+    }
+
+    private static Color resolveHeaderForeground() {
         if (UIManager.get(currentHeaderForeground) != null) {
             return UIManager.getColor(currentHeaderForeground);
         }
@@ -0,0 +1,130 @@
+/*
+Copyright (c) 2024 Andrew Auclair
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package ModernDocking.ui;
+
+import javax.swing.*;
+import javax.swing.border.Border;
+import java.awt.*;
+
+/**
+ * The colors, borders and strokes used by Modern Docking, resolved from the look and feel once.
+ * <p>
+ * Instances are immutable. DockingSettings replaces the current theme when the look and feel or one of the
+ * properties changes, so painting code can read fields without looking anything up in UIManager.
+ */
+public final class DockingTheme {
+    private final Color handleBackground;
+    private final Color handleForeground;
+    private final Color overlayBackground;
+    private final Color highlighterSelectedBorder;
+    private final Color highlighterNotSelectedBorder;
+    private final Color headerBackground;
+    private final Color headerForeground;
+
+    private final Border selectedBorder;
+    private final Border notSelectedBorder;
+    private final Border headerBorder;
+    private final Stroke handleDashedStroke;
+
+    DockingTheme(Color handleBackground, Color handleForeground, Color overlayBackground, Color highlighterSelectedBorder,
+                 Color highlighterNotSelectedBorder, Color headerBackground, Color headerForeground) {
+        this.handleBackground = handleBackground;
+        this.handleForeground = handleForeground;
+        this.overlayBackground = overlayBackground;
+        this.highlighterSelectedBorder = highlighterSelectedBorder;
+        this.highlighterNotSelectedBorder = highlighterNotSelectedBorder;
+        this.headerBackground = headerBackground;
+        this.headerForeground = headerForeground;
+
+        selectedBorder = BorderFactory.createLineBorder(highlighterSelectedBorder, 2);
+        notSelectedBorder = BorderFactory.createCompoundBorder(
+                BorderFactory.createEmptyBorder(1, 1, 1, 1),
+                BorderFactory.createLineBorder(highlighterNotSelectedBorder, 1)
+        );
+        headerBorder = BorderFactory.createMatteBorder(0, 0, 1, 0, highlighterNotSelectedBorder);
+        handleDashedStroke = new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{3}, 0);
+    }
+
+    public Color getHandleBackground() {
+        return handleBackground;
+    }
+
+    public Color getHandleForeground() {
+        return handleForeground;
+    }
+
+    public Color getOverlayBackground() {
+        return overlayBackground;
+    }
+
+    public Color getHighlighterSelectedBorder() {
+        return highlighterSelectedBorder;
+    }
+
+    public Color getHighlighterNotSelectedBorder() {
+        return highlighterNotSelectedBorder;
+    }
+
+    public Color getHeaderBackground() {
+        return headerBackground;
+    }
+
+    public Color getHeaderForeground() {
+        return headerForeground;
+    }
+
+    /**
+     * Border of the dockable panel that the mouse is over
+     *
+     * @return Shared selected border
+     */
+    public Border getSelectedBorder() {
+        return selectedBorder;
+    }
+
+    /**
+     * Border of dockable panels that the mouse is not over
+     *
+     * @return Shared not selected border
+     */
+    public Border getNotSelectedBorder() {
+        return notSelectedBorder;
+    }
+
+    /**
+     * Bottom border of the dockable headers
+     *
+     * @return Shared header border
+     */
+    public Border getHeaderBorder() {
+        return headerBorder;
+    }
+
+    /**
+     * Stroke used for the dashed lines of the docking handles
+     *
+     * @return Shared dashed stroke
+     */
+    public Stroke getHandleDashedStroke() {
+        return handleDashedStroke;
+    }
+}
@@ -44,8 +44,9 @@ public class HeaderController implements MaximizeListener, DockingListener {
 		this.docking = docking;
 		this.model = model;
 
-		DockingListeners.addMaximizeListener(this);
-		DockingListeners.addDockingListener(this);
+		// the header only changes with its own dockable, so don't listen to events for every other dockable
+		DockingListeners.addMaximizeListener(dockable.getPersistentID(), this);
+		DockingListeners.addDockingListener(dockable.getPersistentID(), this);
 	}
 
 	public void setUI(DockingHeaderUI ui) {
@@ -53,8 +54,8 @@ public class HeaderController implements MaximizeListener, DockingListener {
 	}
 
 	public void removeListeners() {
-		DockingListeners.removeMaximizeListener(this);
-		DockingListeners.removeDockingListener(this);
+		DockingListeners.removeMaximizeListener(dockable.getPersistentID(), this);
+		DockingListeners.removeDockingListener(dockable.getPersistentID(), this);
 	}
 
 	/**
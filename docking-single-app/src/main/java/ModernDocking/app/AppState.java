@@ -27,6 +27,7 @@ import ModernDocking.exception.DockingLayoutException;
 import ModernDocking.layouts.ApplicationLayout;
 
 import java.io.File;
+import java.util.concurrent.TimeUnit;
 
 public class AppState {
     private static final AppStateAPI instance = new AppStateAPI(Docking.getSingleInstance()){};
@@ -94,6 +95,53 @@ public class AppState {
         instance.persist();
     }
 
+    /**
+     * Set whether changes should be appended to a journal next to the persist file instead of writing
+     * the entire layout on every change.
+     *
+     * @param journaled Should docking changes be journaled?
+     */
+    public static void setJournaled(boolean journaled) {
+        instance.setJournaled(journaled);
+    }
+
+    /**
+     * Are docking changes being journaled?
+     *
+     * @return True - changes are appended to a journal, False - the full layout is written on every change
+     */
+    public static boolean isJournaled() {
+        return instance.isJournaled();
+    }
+
+    /**
+     * Write the full layout to the persist file and reset the journal
+     */
+    public static void compact() {
+        instance.compact();
+    }
+
+    /**
+     * Get the number of times persisting was skipped because the layout had not changed since it was last written
+     *
+     * @return Number of skipped writes
+     */
+    public static long getSkippedPersistCount() {
+        return instance.getSkippedPersistCount();
+    }
+
+    /**
+     * Persist any pending layout changes immediately and wait for all layout writes to finish.
+     * Applications should call this before exiting to make sure the latest layout is on disk.
+     *
+     * @param timeout Maximum time to wait for the writes
+     * @param unit Unit of the timeout
+     * @return True if all writes finished before the timeout
+     */
+    public static boolean flush(long timeout, TimeUnit unit) {
+        return instance.flush(timeout, unit);
+    }
+
     /**
      * Restore the application layout from the auto persist file.
      *
@@ -25,6 +25,7 @@ import ModernDocking.Dockable;
 import ModernDocking.DockingRegion;
 import ModernDocking.api.DockingAPI;
 import ModernDocking.api.RootDockingPanelAPI;
+import ModernDocking.event.DockingBatchListener;
 import ModernDocking.event.DockingListener;
 import ModernDocking.event.MaximizeListener;
 
@@ -536,6 +537,96 @@ public class Docking {
         instance.removeDockingListener(listener);
     }
 
+    /**
+     * Add a new batch listener. Will be called once at the end of each batch of docking changes
+     *
+     * @param listener Listener to add
+     */
+    public static void addDockingBatchListener(DockingBatchListener listener) {
+        instance.addDockingBatchListener(listener);
+    }
+
+    /**
+     * Remove a previously added batch listener. No-op if the listener isn't in the list
+     *
+     * @param listener Listener to remove
+     */
+    public static void removeDockingBatchListener(DockingBatchListener listener) {
+        instance.removeDockingBatchListener(listener);
+    }
+
+    /**
+     * Add a maximize listener that is only called when the given dockable is maximized or minimized
+     *
+     * @param dockable Dockable to listen to
+     * @param listener Listener to add
+     */
+    public static void addMaximizeListener(Dockable dockable, MaximizeListener listener) {
+        instance.addMaximizeListener(dockable, listener);
+    }
+
+    /**
+     * Remove a maximize listener that was added for a single dockable
+     *
+     * @param dockable Dockable the listener was added for
+     * @param listener Listener to remove
+     */
+    public static void removeMaximizeListener(Dockable dockable, MaximizeListener listener) {
+        instance.removeMaximizeListener(dockable, listener);
+    }
+
+    /**
+     * Add a docking listener that is only called for events of the given dockable
+     *
+     * @param dockable Dockable to listen to
+     * @param listener Listener to add
+     */
+    public static void addDockingListener(Dockable dockable, DockingListener listener) {
+        instance.addDockingListener(dockable, listener);
+    }
+
+    /**
+     * Remove a docking listener that was added for a single dockable
+     *
+     * @param dockable Dockable the listener was added for
+     * @param listener Listener to remove
+     */
+    public static void removeDockingListener(Dockable dockable, DockingListener listener) {
+        instance.removeDockingListener(dockable, listener);
+    }
+
+    /**
+     * Start a batch of docking changes. Layout validation, docking events and persistence are held until the batch ends.
+     */
+    public static void beginBatch() {
+        instance.beginBatch();
+    }
+
+    /**
+     * End a batch of docking changes
+     */
+    public static void endBatch() {
+        instance.endBatch();
+    }
+
+    /**
+     * Run a set of docking changes as a single batch
+     *
+     * @param changes The docking changes to make
+     */
+    public static void batch(Runnable changes) {
+        instance.batch(changes);
+    }
+
+    /**
+     * Check if a batch of docking changes is in progress
+     *
+     * @return True if a batch is in progress
+     */
+    public static boolean isBatching() {
+        return instance.isBatching();
+    }
+
     public static DockingAPI getSingleInstance() {
         if (instance == null) {
             throw new RuntimeException("No docking instance available.");
@@ -21,6 +21,7 @@ SOFTWARE.
  */
 package ModernDocking.app;
 
+import ModernDocking.api.LayoutCodec;
 import ModernDocking.api.LayoutPersistenceAPI;
 import ModernDocking.exception.DockingLayoutException;
 import ModernDocking.layouts.ApplicationLayout;
@@ -31,6 +32,28 @@ import java.io.File;
 public class LayoutPersistence {
     private static final LayoutPersistenceAPI instance = new LayoutPersistenceAPI(Docking.getSingleInstance()){};
 
+    /**
+     * Set the codec used to write layout files. Layout files are always read with the codec that matches
+     * their contents, so existing files can still be loaded after changing codecs.
+     *
+     * @param codec The codec to use, defaults to XMLLayoutCodec
+     */
+    public static void setCodec(LayoutCodec codec) {
+        instance.setCodec(codec);
+
+        // auto persistence writes through the docking instance, keep it in sync
+        Docking.getSingleInstance().getLayoutPersistence().setCodec(codec);
+    }
+
+    /**
+     * Get the codec used to write layout files
+     *
+     * @return Current layout codec
+     */
+    public static LayoutCodec getCodec() {
+        return instance.getCodec();
+    }
+
     /**
      * saves a docking layout to the given file
      *
@@ -58,7 +81,7 @@ public class LayoutPersistence {
     }
 
     /**
-     * Load a WindowLayout from an XML file
+     * Load a WindowLayout from a file
      *
      * @param file File to load WindowLayout from
      * @return The loaded WindowLayout
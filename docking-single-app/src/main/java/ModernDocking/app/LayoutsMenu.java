@@ -26,11 +26,17 @@ import ModernDocking.event.DockingLayoutListener;
 import ModernDocking.layouts.DockingLayouts;
 
 import javax.swing.*;
+import javax.swing.event.MenuEvent;
+import javax.swing.event.MenuListener;
 
 /**
  * Custom JMenu that displays all the layouts in DockingLayouts as menu items
  */
-public class LayoutsMenu extends JMenu implements DockingLayoutListener {
+public class LayoutsMenu extends JMenu implements DockingLayoutListener, MenuListener {
+	// the items are only rebuilt when the menu is opened after the list of layouts changed.
+	// only layout names are needed here, layouts in a layout library are not loaded until they are selected
+	private boolean needsRebuild = true;
+
 	/**
 	 * Create a new layouts menu. Add a listener for when layouts change.
 	 */
@@ -38,22 +44,38 @@ public class LayoutsMenu extends JMenu implements DockingLayoutListener {
 		super("Layouts");
 
 		DockingLayouts.addLayoutsListener(this);
-
-		rebuildOptions();
+		addMenuListener(this);
 	}
+
 	private void rebuildOptions() {
 		removeAll();
+		needsRebuild = false;
 
 		for (String name : DockingLayouts.getLayoutNames()) {
-			JMenuItem item = new JMenuItem(name);
-			item.addActionListener(e -> DockingState.restoreApplicationLayout(DockingLayouts.getLayout(name)));
-
-			add(item);
+			add(new ApplicationLayoutMenuItem(name));
 		}
 	}
 
 	@Override
 	public void layoutChange(DockingLayoutEvent e) {
-		rebuildOptions();
+		// persisting and restoring the current layout doesn't change the list of layouts
+		if (e.getID() == DockingLayoutEvent.ID.ADDED || e.getID() == DockingLayoutEvent.ID.REMOVED) {
+			needsRebuild = true;
+		}
+	}
+
+	@Override
+	public void menuSelected(MenuEvent e) {
+		if (needsRebuild) {
+			rebuildOptions();
+		}
+	}
+
+	@Override
+	public void menuDeselected(MenuEvent e) {
+	}
+
+	@Override
+	public void menuCanceled(MenuEvent e) {
 	}
 }